@@ -6,6 +6,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
 
 /**
  * Spring configuration for creating and initializing the AWS S3 client.
@@ -19,20 +22,29 @@ public class AwsS3Config {
     @Value("${aws.s3.region:eu-west-3}")
     private String region;
 
+    /**
+     * Optional endpoint replacing AWS, e.g. a MinIO server. Objects are then addressed in path style.
+     */
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
     /**
      * Instance of the S3 client initialized after the configuration is constructed.
      */
     private S3Client s3Client;
 
     /**
-     * Initializes the S3 client with the configured region.
+     * Initializes the S3 client with the configured region, and endpoint if any.
      * This method is automatically invoked after the bean is constructed.
      */
     @PostConstruct
     public void init() {
-        this.s3Client = S3Client.builder()
-                .region(Region.of(region))
-                .build();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        this.s3Client = builder.build();
     }
 
     /**
@@ -0,0 +1,85 @@
+package com.owod.plateforme_api.configurations;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One-shot migration moving the events embedded in designer documents to the "designer_events" collection.
+ * <p>
+ * Runs at startup and only touches designers still holding an {@code events} array, so it is a no-op
+ * once every designer has been migrated. Each designer's events are upserted by ID before the array
+ * is removed, so an interrupted migration can safely run again.
+ */
+@Component
+public class DesignerEventMigration {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Migrates the embedded events of every designer not migrated yet.
+     *
+     * @return the number of migrated events
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrate() {
+        MongoCollection<Document> designers = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Designer.class));
+        MongoCollection<Document> events = mongoTemplate.getCollection(mongoTemplate.getCollectionName(DesignerEvent.class));
+
+        int migrated = 0;
+        for (Document designer : designers.find(Filters.exists("events"))
+                .projection(Projections.include("events"))) {
+            Object designerKey = designer.get("_id");
+            String designerId = designerKey.toString();
+            List<Document> embedded = designer.getList("events", Document.class, List.of());
+
+            List<WriteModel<Document>> writes = new ArrayList<>();
+            for (Document event : embedded) {
+                Object eventId = event.get("_id");
+                if (eventId == null || belongsToAnotherDesigner(events, eventId, designerId)) {
+                    eventId = "event_" + UUID.randomUUID();
+                }
+                event.put("_id", eventId);
+                event.put("designerId", designerId);
+                event.put("_class", DesignerEvent.class.getName());
+                writes.add(new ReplaceOneModel<>(Filters.eq("_id", eventId), event, new ReplaceOptions().upsert(true)));
+            }
+            if (!writes.isEmpty()) {
+                events.bulkWrite(writes);
+            }
+            designers.updateOne(Filters.eq("_id", designerKey), Updates.unset("events"));
+            migrated += writes.size();
+        }
+        return migrated;
+    }
+
+    /**
+     * Checks whether an event ID is already used by an event of another designer,
+     * client-generated IDs being only unique per designer.
+     */
+    private boolean belongsToAnotherDesigner(MongoCollection<Document> events, Object eventId, String designerId) {
+        Document existing = events.find(Filters.eq("_id", eventId))
+                .projection(Projections.include("designerId"))
+                .first();
+        return existing != null && !designerId.equals(existing.getString("designerId"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.owod.plateforme_api.configurations;
+
+import com.owod.plateforme_api.services.JwtKeyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot migration encrypting the JWT key secrets stored in clear by previous versions.
+ * <p>
+ * Runs at startup and only touches the keys not encrypted yet, so it is a no-op once every key has been
+ * migrated. The periodic key reload never writes, it only reads the legacy secrets as they are.
+ */
+@Component
+public class JwtKeyEncryptionMigration {
+
+    @Autowired
+    private JwtKeyService jwtKeyService;
+
+    /**
+     * Encrypts the stored secrets still in clear.
+     *
+     * @return the number of migrated keys
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrate() {
+        return jwtKeyService.encryptLegacySecrets();
+    }
+}
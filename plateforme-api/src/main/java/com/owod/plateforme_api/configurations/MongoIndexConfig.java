@@ -0,0 +1,46 @@
+package com.owod.plateforme_api.configurations;
+
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import com.owod.plateforme_api.models.entities.MailOutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.List;
+
+/**
+ * Spring configuration ensuring the indexes declared on query-heavy entities exist at startup.
+ * <p>
+ * Automatic index creation is only enabled in the dev profile, so the indexes backing
+ * catalogue, calendar and mail outbox queries are created explicitly here for every environment.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+    /**
+     * Entities whose annotated indexes are ensured at startup.
+     */
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Designer.class, DesignerEvent.class, MailOutboxMessage.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Resolves the index annotations of each entity and creates the missing indexes.
+     * Existing indexes with the same definition are left untouched by MongoDB.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            resolver.resolveIndexFor(entity).forEach(indexOps::ensureIndex);
+        }
+    }
+}
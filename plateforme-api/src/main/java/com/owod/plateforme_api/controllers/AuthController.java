@@ -7,17 +7,23 @@ import com.owod.plateforme_api.models.payload.LoginRequest;
 import com.owod.plateforme_api.models.payload.RegisterRequest;
 import com.owod.plateforme_api.models.payload.SessionInfo;
 import com.owod.plateforme_api.services.DesignerService;
+import com.owod.plateforme_api.services.JwtKeyService;
+import com.owod.plateforme_api.services.LoginThrottleService;
+import com.owod.plateforme_api.services.PasswordHashingService;
+import com.owod.plateforme_api.services.RegisteredEmailService;
 import com.owod.plateforme_api.services.UserService;
 import com.owod.plateforme_api.utils.JwtUtils;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -25,6 +31,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller for authentication operations:
@@ -33,6 +40,7 @@ import java.util.Set;
  *   <li>Logout: clears the JWT cookie</li>
  *   <li>Register: creates a new user with ROLE_USER</li>
  *   <li>Get current user info from the JWT</li>
+ *   <li>Rotate the JWT signing key (admin only)</li>
  * </ul>
  */
 @RestController
@@ -40,7 +48,13 @@ import java.util.Set;
 public class AuthController {
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Autowired
+    private RegisteredEmailService registeredEmailService;
 
     @Autowired
     private JwtUtils jwtUtils;
@@ -48,29 +62,60 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JwtKeyService jwtKeyService;
+
     /**
      * Authenticates the user with given credentials.
      * On success, sets a secure, HttpOnly 'jwt' cookie containing the JWT.
+     * <p>
+     * Failed attempts are throttled per email and per client IP, and the password is checked on the
+     * bounded hashing pool, so a burst of logins is refused with 429 instead of occupying every thread.
+     * Unknown emails are answered without database access nor hashing, after the usual duration of a
+     * password check, so that they cannot be told from wrong passwords.
      *
      * @param loginRequest contains the user's email and password
+     * @param request      the HTTP request, used to identify the client IP
      * @param response     the HTTP response, used to add the JWT cookie
      * @return 200 OK with success message if authentication succeeds;
-     *         401 Unauthorized with error message otherwise
+     *         401 Unauthorized with error message if the credentials are wrong;
+     *         429 Too Many Requests with a Retry-After header if throttled or the server is busy
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest,
+                                   HttpServletRequest request,
                                    HttpServletResponse response) {
-        Optional<User> optionalUser = userService.findByEmail(loginRequest.getEmail());
-        if (optionalUser.isEmpty() ||
-                !passwordEncoder.matches(loginRequest.getPassword(), optionalUser.get().getPassword())) {
+        String email = loginRequest.getEmail();
+        String ip = request.getRemoteAddr();
+        long retryAfter = loginThrottleService.retryAfterSeconds(email, ip);
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter, "Too many failed login attempts, retry later");
+        }
+
+        Optional<User> optionalUser = Optional.empty();
+        boolean authenticated = false;
+        try {
+            if (registeredEmailService.mightBeRegistered(email)) {
+                long start = System.nanoTime();
+                optionalUser = userService.findByEmail(email);
+                authenticated = passwordHashingService.matches(loginRequest.getPassword(),
+                        optionalUser.map(User::getPassword).orElse(null));
+                passwordHashingService.recordKnownEmailCheck(System.nanoTime() - start);
+            } else {
+                passwordHashingService.awaitTypicalMatch();
+            }
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(1, "Server busy, retry later");
+        }
+        if (!authenticated) {
+            loginThrottleService.onFailure(email, ip);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Incorrect email or password");
         }
 
+        loginThrottleService.onSuccess(email);
         User user = optionalUser.get();
-        String token = jwtUtils.generateToken(user);
-        Cookie cookie = jwtUtils.createCookie("jwt", token, 24 * 60 * 60, true);
-        response.addCookie(cookie);
+        response.addCookie(jwtUtils.createTokenCookie(user));
 
         return ResponseEntity.ok("Login successful !");
     }
@@ -94,7 +139,8 @@ public class AuthController {
      *
      * @param registerRequest contains email, password, firstname and lastname
      * @return 200 OK with success message if registration succeeds;
-     *         400 Bad Request if email is already in use
+     *         400 Bad Request if email is already in use;
+     *         429 Too Many Requests if the password hashing pool is saturated
      */
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
@@ -107,7 +153,11 @@ public class AuthController {
         newUser.setEmail(registerRequest.getEmail());
         newUser.setFirstname(registerRequest.getFirstname());
         newUser.setLastname(registerRequest.getLastname());
-        newUser.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        try {
+            newUser.setPassword(passwordHashingService.encode(registerRequest.getPassword()));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(1, "Server busy, retry later");
+        }
 
         Set<Role> roles = new HashSet<>();
         roles.add(Role.USER);
@@ -148,4 +198,29 @@ public class AuthController {
         );
         return ResponseEntity.ok(body);
     }
+
+    /**
+     * Rotates the JWT signing key. New tokens are signed with a freshly generated key,
+     * while tokens already issued stay valid until they expire.
+     *
+     * @return 200 OK with JSON containing the "keyId" of the new signing key
+     */
+    @PostMapping("/keys/rotate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rotateSigningKey() {
+        return ResponseEntity.ok(Map.of("keyId", jwtKeyService.rotate()));
+    }
+
+    /**
+     * Builds a 429 Too Many Requests response.
+     *
+     * @param retryAfterSeconds the delay advertised in the Retry-After header
+     * @param message           the error message
+     * @return the 429 response
+     */
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(message);
+    }
 }
@@ -7,6 +7,8 @@ import com.owod.plateforme_api.models.entities.User;
 import com.owod.plateforme_api.services.CompanyService;
 import com.owod.plateforme_api.services.ImageStorageService;
 import com.owod.plateforme_api.services.UserService;
+import com.owod.plateforme_api.utils.JwtUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -33,6 +35,9 @@ public class CompanyController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JwtUtils jwtUtils;
+
     /**
      * Retrieves all company data as a list of CompanyDTO objects.
      *
@@ -118,15 +123,17 @@ public class CompanyController {
     /**
      * Creates a new company and associates it with the authenticated user.
      * The authenticated user's email is set as the company's email, and the user's information is updated
-     * to associate them with the created company.
+     * to associate them with the created company. The JWT cookie is reissued so that its claims include the company.
      *
      * @param companyDto the data for the new company, provided as a CompanyDTO object
      * @param principal the authenticated user's principal information
+     * @param response the HTTP response, used to refresh the JWT cookie
      * @return a ResponseEntity containing the newly created CompanyDTO object with a status of CREATED (201),
      *         or an error message with a status of BAD_REQUEST (400) if creation fails
      */
     @PostMapping("/new")
-    public ResponseEntity<?> newCompany(@RequestBody CompanyDTO companyDto, Principal principal) {
+    public ResponseEntity<?> newCompany(@RequestBody CompanyDTO companyDto, Principal principal,
+                                        HttpServletResponse response) {
         try {
             String userId = principal.getName();
             User user = userService.findByUserId(userId)
@@ -139,6 +146,7 @@ public class CompanyController {
 
             user.setCompanyId(newCompany.getId());
             userService.save(user);
+            response.addCookie(jwtUtils.createTokenCookie(user));
             return ResponseEntity.status(HttpStatus.CREATED).body(newCompany);
 
         } catch (Exception e) {
@@ -1,14 +1,26 @@
 package com.owod.plateforme_api.controllers;
 
+import com.owod.plateforme_api.models.dtos.DesignerFacets;
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.dtos.PageDto;
 import com.owod.plateforme_api.models.entities.Designer;
 import com.owod.plateforme_api.models.entities.DesignerEvent;
+import com.owod.plateforme_api.models.entities.ImageRenditions;
 import com.owod.plateforme_api.models.entities.User;
-import com.owod.plateforme_api.repositories.UserRepository;
+import com.owod.plateforme_api.models.payload.DesignerSearchRequest;
+import com.owod.plateforme_api.security.CurrentUserContext;
+import com.owod.plateforme_api.services.DesignerEventService;
+import com.owod.plateforme_api.services.DesignerFacetService;
+import com.owod.plateforme_api.services.DesignerSearchService;
 import com.owod.plateforme_api.services.DesignerService;
-import com.owod.plateforme_api.services.ImageStorageService;
+import com.owod.plateforme_api.services.ImageReferenceService;
+import com.owod.plateforme_api.services.ImageRenditionService;
 import com.owod.plateforme_api.services.TransferService;
 import com.owod.plateforme_api.services.UserService;
+import com.owod.plateforme_api.utils.JwtUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,6 +29,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.security.Principal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -31,20 +44,38 @@ public class DesignerController {
     @Autowired
     private DesignerService designerService;
 
+    @Autowired
+    private DesignerEventService designerEventService;
+
+    @Autowired
+    private DesignerSearchService designerSearchService;
+
+    @Autowired
+    private DesignerFacetService designerFacetService;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private TransferService transferService;
 
-    @Autowired(required = false)
-    private ImageStorageService imageStorageService;
+    @Autowired
+    private ImageRenditionService imageRenditionService;
+
+    @Autowired
+    private ImageReferenceService imageReferenceService;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserContext currentUserContext;
+
+    @Autowired
+    private JwtUtils jwtUtils;
 
     /**
-     * Retrieves all designers.
+     * Retrieves all designers as full documents.
+     * <p>
+     * Kept for the current web catalogue client; new list views should use the paginated
+     * and filterable {@code GET /designers} summaries instead.
      *
      * @return a list of all Designer entities
      */
@@ -53,6 +84,69 @@ public class DesignerController {
         return designerService.getAll();
     }
 
+    /**
+     * Retrieves one page of the designer catalogue as designer summaries, optionally filtered.
+     * <p>
+     * The filters (profession, specialty, sphere, sector, country) are combined with AND.
+     * When a cursor is given (an empty value requests the first page), keyset pagination on the ID is used
+     * and page and sort are ignored; otherwise offset pagination is used with the optional sort.
+     *
+     * @param search the optional filters, bound from the query parameters
+     * @param page   the zero-based page number (offset mode)
+     * @param size   the page size, capped to {@link DesignerSearchService#MAX_PAGE_SIZE}
+     * @param sort   optional sort expression "field,asc|desc" (offset mode)
+     * @param cursor optional ID of the last designer of the previous page (cursor mode)
+     * @return ResponseEntity containing the page or an error message
+     */
+    @GetMapping
+    public ResponseEntity<?> getDesigners(DesignerSearchRequest search,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) String sort,
+                                          @RequestParam(required = false) String cursor) {
+        try {
+            PageDto<DesignerSummary> designers = cursor != null
+                    ? designerSearchService.searchAfter(search, cursor, size)
+                    : designerSearchService.search(search, page, size, sort);
+            return ResponseEntity.ok(designers);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error retrieving designers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Searches designers by name, profession and biography.
+     * Accents and case are ignored, and words may be typed partially.
+     *
+     * @param q    the searched text
+     * @param page the zero-based page number
+     * @param size the page size, capped to {@link DesignerSearchService#MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the page of best matches or an error message
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchDesigners(@RequestParam String q,
+                                             @RequestParam(defaultValue = "0") int page,
+                                             @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(designerSearchService.searchText(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error searching designers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the values available in each catalogue filter with their designer counts.
+     * Served from memory, the collection is not read once the counts are loaded.
+     *
+     * @return the facets of the designer catalogue
+     */
+    @GetMapping("/facets")
+    public DesignerFacets getFacets() {
+        return designerFacetService.getFacets();
+    }
+
     /**
      * Retrieves a specific designer by the associated user ID.
      *
@@ -160,11 +254,11 @@ public class DesignerController {
      * Retrieves all designers having a specific specialty.
      *
      * @param specialty the specialty to filter designers by
-     * @return ResponseEntity containing list of designers or no content
+     * @return ResponseEntity containing list of designer summaries or no content
      */
     @GetMapping("/specialty")
-    public ResponseEntity<List<Designer>> getDesignersBySpecialty(@RequestParam String specialty) {
-        List<Designer> designers = designerService.findBySpecialty(specialty);
+    public ResponseEntity<List<DesignerSummary>> getDesignersBySpecialty(@RequestParam String specialty) {
+        List<DesignerSummary> designers = designerService.findBySpecialty(specialty);
         if (designers.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -173,13 +267,16 @@ public class DesignerController {
 
     /**
      * Creates a new designer for the authenticated user.
+     * The JWT cookie is reissued so that its claims include the new designer.
      *
      * @param designer  Designer object from request body
      * @param principal security principal of the authenticated user
+     * @param response  the HTTP response, used to refresh the JWT cookie
      * @return ResponseEntity with created Designer or error message
      */
     @PostMapping("/new")
-    public ResponseEntity<?> newDesigner(@RequestBody Designer designer, Principal principal) {
+    public ResponseEntity<?> newDesigner(@RequestBody Designer designer, Principal principal,
+                                         HttpServletResponse response) {
         try {
             String userId = principal.getName();
             User user = userService.findByUserId(userId)
@@ -192,6 +289,7 @@ public class DesignerController {
             Designer newDesigner = designerService.save(designer);
             user.setDesignerId(newDesigner.getId());
             userService.save(user);
+            response.addCookie(jwtUtils.createTokenCookie(user));
             return ResponseEntity.status(HttpStatus.CREATED).body(newDesigner);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -230,7 +328,7 @@ public class DesignerController {
      * Requires ADMIN role.
      *
      * @param principal security principal of the authenticated admin
-     * @return ResponseEntity containing list of Designer entities
+     * @return ResponseEntity containing list of designer summaries
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/adminCreatedDesigners")
@@ -240,7 +338,7 @@ public class DesignerController {
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Admin not found : " + userId
                 ));
-        List<Designer> designers = designerService.getDesignersCreatedByAdmin(authenticatedUser.getUserId());
+        List<DesignerSummary> designers = designerService.getDesignersCreatedByAdmin(authenticatedUser.getUserId());
         return ResponseEntity.ok(designers);
     }
 
@@ -281,7 +379,8 @@ public class DesignerController {
     }
 
     /**
-     * Updates the designer's profile picture.
+     * Updates the designer's profile picture, with its resized copies.
+     * The previous picture is released, and deleted from the storage if nothing else uses it.
      * Requires ADMIN role or ownership.
      *
      * @param designerId     ID of the designer to modify
@@ -295,9 +394,12 @@ public class DesignerController {
         try {
             Designer existingDesigner = designerService.findById(designerId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Designer not found"));
-            String uploadedUrl = imageStorageService.uploadImage(profilePicture);
-            existingDesigner.setProfilePicture(uploadedUrl);
+            String previousPicture = existingDesigner.getProfilePicture();
+            ImageRenditions uploaded = imageRenditionService.upload(profilePicture);
+            existingDesigner.setProfilePicture(uploaded.getOriginal());
+            existingDesigner.setProfilePictureRenditions(uploaded);
             Designer savedDesigner = designerService.save(existingDesigner);
+            imageReferenceService.release(previousPicture);
             return ResponseEntity.ok(savedDesigner);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -308,6 +410,9 @@ public class DesignerController {
     /**
      * Adds or updates major works images for a designer.
      * Requires ADMIN role or ownership.
+     * <p>
+     * The number of images is checked before anything is uploaded, and the images are uploaded as a batch:
+     * if one fails, none is kept. Resized copies of each image are stored with it.
      *
      * @param designerId   ID of the designer to modify
      * @param realisations list of image files to add
@@ -321,19 +426,19 @@ public class DesignerController {
         try {
             Designer existingDesigner = designerService.findById(designerId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Designer not found"));
-            List<String> uploadedUrls = new ArrayList<>();
-            for (MultipartFile file : realisations) {
-                String url = imageStorageService.uploadImage(file);
-                uploadedUrls.add(url);
-            }
-            if (uploadedUrls.size() > 3) {
+            if (realisations.size() > 3) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body("3 majorWorks maximum");
             }
+            List<ImageRenditions> uploaded = imageRenditionService.uploadAll(realisations);
             if (existingDesigner.getMajorWorks() == null) {
                 existingDesigner.setMajorWorks(new ArrayList<>());
             }
-            existingDesigner.getMajorWorks().addAll(uploadedUrls);
+            if (existingDesigner.getMajorWorksRenditions() == null) {
+                existingDesigner.setMajorWorksRenditions(new ArrayList<>());
+            }
+            uploaded.forEach(image -> existingDesigner.getMajorWorks().add(image.getOriginal()));
+            existingDesigner.getMajorWorksRenditions().addAll(uploaded);
             Designer savedDesigner = designerService.save(existingDesigner);
             return ResponseEntity.ok(savedDesigner);
         } catch (Exception e) {
@@ -343,7 +448,8 @@ public class DesignerController {
     }
 
     /**
-     * Deletes a specific image from the designer's major works.
+     * Deletes a specific image from the designer's major works, one occurrence if it was uploaded twice.
+     * The image is released, and deleted from the storage if nothing else uses it.
      * Requires ADMIN role or ownership.
      *
      * @param designerId ID of the designer whose work is to be deleted
@@ -364,7 +470,15 @@ public class DesignerController {
                         .body("Realisation not found in the designer's major works.");
             }
             existingDesigner.setMajorWorks(currentMajorWorks);
+            // The same picture may be listed twice: only the renditions of the removed occurrence go
+            if (existingDesigner.getMajorWorksRenditions() != null) {
+                existingDesigner.getMajorWorksRenditions().stream()
+                        .filter(image -> workUrl.equals(image.getOriginal()))
+                        .findFirst()
+                        .ifPresent(existingDesigner.getMajorWorksRenditions()::remove);
+            }
             Designer savedDesigner = designerService.save(existingDesigner);
+            imageReferenceService.release(workUrl);
             return ResponseEntity.ok(savedDesigner);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -372,67 +486,71 @@ public class DesignerController {
         }
     }
 
+    /**
+     * Retrieves the events of a designer, optionally restricted to a date range, e.g. the month shown by a calendar.
+     *
+     * @param designerId the ID of the designer
+     * @param from       optional first day of the range (ISO date), inclusive
+     * @param to         optional last day of the range (ISO date), inclusive
+     * @return ResponseEntity containing the events sorted by start date, or an error message
+     */
+    @GetMapping("/{designerId}/events")
+    public ResponseEntity<?> getEvents(@PathVariable String designerId,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error retrieving events: from must not be after to");
+        }
+        return ResponseEntity.ok(designerEventService.findEvents(designerId, from, to));
+    }
+
     /**
      * Adds an event to the authenticated designer's schedule.
      *
-     * @param principal security principal of the authenticated user
-     * @param event     DesignerEvent object from request body
-     * @return ResponseEntity with updated Designer or 404 if user not found
+     * @param event DesignerEvent object from request body
+     * @return ResponseEntity with the added event or 404 if user not found
      */
     @PostMapping("/events/add")
-    public ResponseEntity<Designer> addEvent(Principal principal, @RequestBody DesignerEvent event) {
-        String currentUserId = principal.getName();
-        Optional<User> optUser = userRepository.findByUserId(currentUserId);
-        if (optUser.isPresent()) {
-            User currentUser = optUser.get();
-            String designerId = currentUser.getDesignerId();
-            Designer updatedDesigner = designerService.addEvent(designerId, event);
-            return ResponseEntity.ok(updatedDesigner);
-        } else {
+    public ResponseEntity<DesignerEvent> addEvent(@RequestBody DesignerEvent event) {
+        String designerId = currentUserContext.getDesignerId();
+        if (designerId == null && currentUserContext.getUser().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        DesignerEvent updatedEvent = designerEventService.addEvent(designerId, event);
+        return ResponseEntity.ok(updatedEvent);
     }
 
     /**
      * Modifies an existing event for the authenticated designer.
      *
-     * @param principal security principal of the authenticated user
-     * @param event     DesignerEvent object from request body
-     * @return ResponseEntity with updated Designer or 404 if user not found
+     * @param event DesignerEvent object from request body
+     * @return ResponseEntity with the modified event or 404 if user not found
      */
     @PostMapping("/events/modify")
-    public ResponseEntity<Designer> modifyEvent(Principal principal, @RequestBody DesignerEvent event) {
-        String currentUserId = principal.getName();
-        Optional<User> optUser = userRepository.findByUserId(currentUserId);
-        if (optUser.isPresent()) {
-            User currentUser = optUser.get();
-            String designerId = currentUser.getDesignerId();
-            Designer updatedDesigner = designerService.modifyEvent(designerId, event);
-            return ResponseEntity.ok(updatedDesigner);
-        } else {
+    public ResponseEntity<DesignerEvent> modifyEvent(@RequestBody DesignerEvent event) {
+        String designerId = currentUserContext.getDesignerId();
+        if (designerId == null && currentUserContext.getUser().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        DesignerEvent updatedEvent = designerEventService.modifyEvent(designerId, event);
+        return ResponseEntity.ok(updatedEvent);
     }
 
     /**
      * Deletes an existing event from the authenticated designer's schedule.
      *
-     * @param principal security principal of the authenticated user
-     * @param event     DesignerEvent object from request body
-     * @return ResponseEntity with updated Designer or 404 if user not found
+     * @param event DesignerEvent object from request body
+     * @return ResponseEntity with the deleted event or 404 if user not found
      */
     @PostMapping("/events/delete")
-    public ResponseEntity<Designer> deleteEvent(Principal principal, @RequestBody DesignerEvent event) {
-        String currentUserId = principal.getName();
-        Optional<User> optUser = userRepository.findByUserId(currentUserId);
-        if (optUser.isPresent()) {
-            User currentUser = optUser.get();
-            String designerId = currentUser.getDesignerId();
-            Designer updatedDesigner = designerService.deleteEvent(designerId, event);
-            return ResponseEntity.ok(updatedDesigner);
-        } else {
+    public ResponseEntity<DesignerEvent> deleteEvent(@RequestBody DesignerEvent event) {
+        String designerId = currentUserContext.getDesignerId();
+        if (designerId == null && currentUserContext.getUser().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        DesignerEvent updatedEvent = designerEventService.deleteEvent(designerId, event);
+        return ResponseEntity.ok(updatedEvent);
     }
 
 }
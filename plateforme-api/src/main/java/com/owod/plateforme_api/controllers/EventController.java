@@ -0,0 +1,50 @@
+package com.owod.plateforme_api.controllers;
+
+import com.owod.plateforme_api.models.dtos.PageDto;
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import com.owod.plateforme_api.services.DesignerEventService;
+import com.owod.plateforme_api.services.DesignerSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller exposing the platform-wide agenda of designer events.
+ */
+@RestController
+@RequestMapping("/events")
+public class EventController {
+
+    @Autowired
+    private DesignerEventService designerEventService;
+
+    /**
+     * Retrieves one page of the upcoming events of all designers, in date order.
+     * The next page is requested by passing back the returned {@code nextCursor}, null on the last page.
+     *
+     * @param from   optional first start date included (ISO date), today by default
+     * @param cursor optional cursor returned with the previous page
+     * @param size   the page size, capped to {@link DesignerSearchService#MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the page of events or an error message
+     */
+    @GetMapping("/upcoming")
+    public ResponseEntity<?> getUpcomingEvents(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size) {
+        try {
+            PageDto<DesignerEvent> events = designerEventService.findUpcoming(
+                    from != null ? from : LocalDate.now(), cursor, size);
+            return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error retrieving events: " + e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.owod.plateforme_api.controllers;
 
 import com.owod.plateforme_api.mappers.UserMapper;
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.dtos.PageDto;
 import com.owod.plateforme_api.models.dtos.UserDto;
 import com.owod.plateforme_api.models.entities.AccountType;
 import com.owod.plateforme_api.models.entities.Designer;
 import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.services.DesignerSearchService;
 import com.owod.plateforme_api.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -89,6 +92,28 @@ public class UserController {
         }
     }
 
+    /**
+     * Retrieves one page of the authenticated user's friends as designer summaries, sorted by designer ID.
+     * Selected over {@link #getFriends(Principal)} when the page parameter is present.
+     *
+     * @param principal security principal of the authenticated user
+     * @param page      the zero-based page number
+     * @param size      the page size, capped to {@link DesignerSearchService#MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the page or an error message
+     */
+    @GetMapping(value = "/friends", params = "page")
+    public ResponseEntity<?> getFriendsPage(Principal principal,
+                                            @RequestParam int page,
+                                            @RequestParam(defaultValue = "20") int size) {
+        try {
+            PageDto<DesignerSummary> friends = userService.getUserFriendsPage(principal.getName(), page, size);
+            return ResponseEntity.ok(friends);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error retrieving friends: " + e.getMessage());
+        }
+    }
+
     /**
      * Adds a friend (designer) to the authenticated user's friend list.
      *
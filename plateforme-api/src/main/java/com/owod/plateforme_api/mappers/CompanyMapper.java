@@ -28,6 +28,9 @@ public class CompanyMapper {
         dto.setWebsiteUrl(company.getWebsiteUrl());
         dto.setTeamPhotoUrl(company.getTeamPhotoUrl());
         dto.setWorksUrl(company.getWorksUrl());
+        dto.setLogoRenditions(company.getLogoRenditions());
+        dto.setTeamPhotoRenditions(company.getTeamPhotoRenditions());
+        dto.setWorksRenditions(company.getWorksRenditions());
         dto.setEmployeesId(company.getEmployeesId());
         return dto;
     }
@@ -53,6 +56,9 @@ public class CompanyMapper {
         company.setWebsiteUrl(dto.getWebsiteUrl());
         company.setTeamPhotoUrl(dto.getTeamPhotoUrl());
         company.setWorksUrl(dto.getWorksUrl());
+        company.setLogoRenditions(dto.getLogoRenditions());
+        company.setTeamPhotoRenditions(dto.getTeamPhotoRenditions());
+        company.setWorksRenditions(dto.getWorksRenditions());
         company.setEmployeesId(dto.getEmployeesId());
 
         // revenue et financialSupport ne sont pas dans le DTO, tu peux les gérer ailleurs
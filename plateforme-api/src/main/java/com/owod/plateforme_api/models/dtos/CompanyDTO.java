@@ -1,5 +1,6 @@
 package com.owod.plateforme_api.models.dtos;
 
+import com.owod.plateforme_api.models.entities.ImageRenditions;
 import org.springframework.data.annotation.Id;
 
 import java.util.List;
@@ -21,6 +22,9 @@ public class CompanyDTO {
     private String websiteUrl;
     private String teamPhotoUrl;
     private List<String> worksUrl;
+    private ImageRenditions logoRenditions;
+    private ImageRenditions teamPhotoRenditions;
+    private List<ImageRenditions> worksRenditions;
     private List<String> employeesId;
 
     public String getId() {
@@ -143,6 +147,30 @@ public class CompanyDTO {
         this.worksUrl = worksUrl;
     }
 
+    public ImageRenditions getLogoRenditions() {
+        return logoRenditions;
+    }
+
+    public void setLogoRenditions(ImageRenditions logoRenditions) {
+        this.logoRenditions = logoRenditions;
+    }
+
+    public ImageRenditions getTeamPhotoRenditions() {
+        return teamPhotoRenditions;
+    }
+
+    public void setTeamPhotoRenditions(ImageRenditions teamPhotoRenditions) {
+        this.teamPhotoRenditions = teamPhotoRenditions;
+    }
+
+    public List<ImageRenditions> getWorksRenditions() {
+        return worksRenditions;
+    }
+
+    public void setWorksRenditions(List<ImageRenditions> worksRenditions) {
+        this.worksRenditions = worksRenditions;
+    }
+
     public List<String> getEmployeesId() {
         return employeesId;
     }
@@ -0,0 +1,21 @@
+package com.owod.plateforme_api.models.dtos;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the filter menus of the designer catalogue.
+ * Each list holds the distinct values of a field with their counts, most frequent first.
+ *
+ * @param professions distinct professions
+ * @param specialties distinct specialties
+ * @param spheres     distinct spheres of influence
+ * @param sectors     distinct favorite sectors
+ * @param countries   distinct countries of residence
+ */
+public record DesignerFacets(
+        List<FacetCount> professions,
+        List<FacetCount> specialties,
+        List<FacetCount> spheres,
+        List<FacetCount> sectors,
+        List<FacetCount> countries
+) {}
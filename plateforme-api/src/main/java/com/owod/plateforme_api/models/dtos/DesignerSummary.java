@@ -0,0 +1,31 @@
+package com.owod.plateforme_api.models.dtos;
+
+import com.owod.plateforme_api.models.entities.ImageRenditions;
+
+import java.util.List;
+
+/**
+ * Lightweight read model of a Designer for list views.
+ * <p>
+ * Used as a repository projection: only these fields are read from the "designers" collection,
+ * the biography, contact details, major works and events are left out.
+ *
+ * @param id                 the designer ID
+ * @param firstname          the designer's first name
+ * @param lastname           the designer's last name
+ * @param profilePicture     URL of the profile picture
+ * @param profession         the designer's profession
+ * @param specialties        the designer's specialties
+ * @param countryOfResidence the designer's country of residence
+ * @param profilePictureRenditions resized copies of the profile picture, for the catalogue grids
+ */
+public record DesignerSummary(
+        String id,
+        String firstname,
+        String lastname,
+        String profilePicture,
+        String profession,
+        List<String> specialties,
+        String countryOfResidence,
+        ImageRenditions profilePictureRenditions
+) {}
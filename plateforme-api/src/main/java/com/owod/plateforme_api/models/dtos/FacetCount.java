@@ -0,0 +1,9 @@
+package com.owod.plateforme_api.models.dtos;
+
+/**
+ * Data Transfer Object for one value of a catalogue filter and the number of designers having it.
+ *
+ * @param value the filter value
+ * @param count the number of designers having this value
+ */
+public record FacetCount(String value, long count) {}
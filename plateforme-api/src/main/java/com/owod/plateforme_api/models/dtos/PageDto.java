@@ -0,0 +1,26 @@
+package com.owod.plateforme_api.models.dtos;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a paginated list endpoint.
+ * <p>
+ * Offset pages carry the page number and totals; cursor pages carry the cursor
+ * to pass back for the next page instead (totals are not counted in that mode).
+ *
+ * @param content       the elements of the current page
+ * @param page          the zero-based page number, or null in cursor mode
+ * @param size          the requested page size
+ * @param totalElements the total number of elements, or null in cursor mode
+ * @param totalPages    the total number of pages, or null in cursor mode
+ * @param nextCursor    the cursor of the next page, or null if there is none
+ * @param <T>           the element type
+ */
+public record PageDto<T>(
+        List<T> content,
+        Integer page,
+        int size,
+        Long totalElements,
+        Integer totalPages,
+        String nextCursor
+) {}
@@ -26,6 +26,9 @@ public class Company {
     private String websiteUrl;
     private String teamPhotoUrl;
     private List<String> worksUrl;
+    private ImageRenditions logoRenditions;
+    private ImageRenditions teamPhotoRenditions;
+    private List<ImageRenditions> worksRenditions;
     private List<String> employeesId;
     private Boolean financialSupport;
 
@@ -149,6 +152,30 @@ public class Company {
         this.worksUrl = worksUrl;
     }
 
+    public ImageRenditions getLogoRenditions() {
+        return logoRenditions;
+    }
+
+    public void setLogoRenditions(ImageRenditions logoRenditions) {
+        this.logoRenditions = logoRenditions;
+    }
+
+    public ImageRenditions getTeamPhotoRenditions() {
+        return teamPhotoRenditions;
+    }
+
+    public void setTeamPhotoRenditions(ImageRenditions teamPhotoRenditions) {
+        this.teamPhotoRenditions = teamPhotoRenditions;
+    }
+
+    public List<ImageRenditions> getWorksRenditions() {
+        return worksRenditions;
+    }
+
+    public void setWorksRenditions(List<ImageRenditions> worksRenditions) {
+        this.worksRenditions = worksRenditions;
+    }
+
     public List<String> getEmployeesId() {
         return employeesId;
     }
@@ -1,6 +1,8 @@
 package com.owod.plateforme_api.models.entities;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -8,9 +10,14 @@ import java.util.List;
 
 /**
  * Entity representing a Designer stored in the "designers" MongoDB collection.
- * Contains personal information, specialties, major works, and related events.
+ * Contains personal information, specialties and major works; events are stored in their own collection.
+ * <p>
+ * Catalogue filters are backed by indexes: multikey indexes on the list fields (MongoDB cannot
+ * compound two array fields) and compound indexes led by the profession for the common combinations.
  */
 @Document(collection = "designers")
+@CompoundIndex(name = "profession_country", def = "{'profession': 1, 'countryOfResidence': 1}")
+@CompoundIndex(name = "profession_specialties", def = "{'profession': 1, 'specialties': 1}")
 public class Designer {
 
     @Id
@@ -23,18 +30,22 @@ public class Designer {
     private String biography; // Biographie
     private String phoneNumber; // Numéro de téléphone
     private String profession; // Profession
+    @Indexed
     private List<String> specialties; // Liste des spécialités
+    @Indexed
     private List<String> spheresOfInfluence; // Liste des sphères d'influence
+    @Indexed
     private List<String> favoriteSectors; // Liste des secteurs favoris
     private String countryOfOrigin; // Pays d'origine
+    @Indexed
     private String countryOfResidence; // Pays de résidence
     private String professionalLevel; // Niveau professionnel (par exemple : junior, senior, expert)
     private List<String> majorWorks = new ArrayList<>(); // URL des photos des réalisations majeures (<= 5)
+    private ImageRenditions profilePictureRenditions; // Déclinaisons redimensionnées de la photo de profil
+    private List<ImageRenditions> majorWorksRenditions = new ArrayList<>(); // Déclinaisons des réalisations majeures
     private String portfolioUrl; // URL du portfolio
     private String createdBy ; // Si le designer a été crée par un user autre que lui, id de cet user
 
-    private List<DesignerEvent> events = new ArrayList<>();
-
     public String getId() {
         return id;
     }
@@ -147,6 +158,22 @@ public class Designer {
         this.professionalLevel = professionalLevel;
     }
 
+    public ImageRenditions getProfilePictureRenditions() {
+        return profilePictureRenditions;
+    }
+
+    public void setProfilePictureRenditions(ImageRenditions profilePictureRenditions) {
+        this.profilePictureRenditions = profilePictureRenditions;
+    }
+
+    public List<ImageRenditions> getMajorWorksRenditions() {
+        return majorWorksRenditions;
+    }
+
+    public void setMajorWorksRenditions(List<ImageRenditions> majorWorksRenditions) {
+        this.majorWorksRenditions = majorWorksRenditions;
+    }
+
     public List<String> getMajorWorks() {
         return majorWorks;
     }
@@ -163,14 +190,6 @@ public class Designer {
         this.portfolioUrl = portfolioUrl;
     }
 
-    public List<DesignerEvent> getEvents() {
-        return events;
-    }
-
-    public void setEvents(List<DesignerEvent> events) {
-        this.events = events;
-    }
-
     public String getCreatedBy() {
         return createdBy;
     }
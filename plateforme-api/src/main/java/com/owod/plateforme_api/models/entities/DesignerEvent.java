@@ -1,13 +1,24 @@
 package com.owod.plateforme_api.models.entities;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
 import java.time.LocalDate;
 
 /**
- * Entity representing a Designer stored in the "designers" MongoDB collection.
- * Contains personal information, specialties, major works, and related events.
+ * Entity representing an event of a designer's calendar, stored in the "designer_events" MongoDB collection.
+ * <p>
+ * Events are indexed by designer and start date for calendar range queries, and by start date and ID
+ * for the keyset-paginated platform agenda.
  */
+@Document(collection = "designer_events")
+@CompoundIndex(name = "designer_start", def = "{'designerId': 1, 'startDate': 1}")
+@CompoundIndex(name = "start_id", def = "{'startDate': 1, '_id': 1}")
 public class DesignerEvent {
+    @Id
     private String id;           // Identifiant unique de l'événement
+    private String designerId;   // Identifiant du designer auquel appartient l'événement
     private String title;        // Titre de l'événement
     private String description;  // Description détaillée
     private LocalDate startDate;      // Date de début
@@ -22,6 +33,14 @@ public class DesignerEvent {
         this.id = id;
     }
 
+    public String getDesignerId() {
+        return designerId;
+    }
+
+    public void setDesignerId(String designerId) {
+        this.designerId = designerId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -0,0 +1,45 @@
+package com.owod.plateforme_api.models.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Entity counting the references to a stored image, in the "image_references" MongoDB collection.
+ * <p>
+ * Stored images are content-addressed and may be shared by several designers or companies, so an image
+ * is only deleted from the storage when its count drops to zero.
+ */
+@Document(collection = "image_references")
+public class ImageReference {
+
+    @Id
+    private String url;  // URL de l'image originale
+    private long count;  // Nombre de documents (designers, entreprises) qui la référencent
+    private Instant acquiredAt;  // Date de la dernière référence comptée
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Instant getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(Instant acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.owod.plateforme_api.models.entities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resized copies of an uploaded image, embedded in the document that references the image.
+ * <p>
+ * Renditions are JPEG files stored next to the original, one per width of
+ * {@link com.owod.plateforme_api.services.ImageRenditionService}. The map is empty when the original
+ * could not be decoded, in which case clients display the original.
+ */
+public class ImageRenditions {
+
+    private String original; // URL de l'image envoyée
+    private Map<String, String> urls = new LinkedHashMap<>(); // URL de chaque déclinaison, par nom (thumb, card, full)
+
+    public ImageRenditions() {
+    }
+
+    public ImageRenditions(String original, Map<String, String> urls) {
+        this.original = original;
+        this.urls = urls;
+    }
+
+    public String getOriginal() {
+        return original;
+    }
+
+    public void setOriginal(String original) {
+        this.original = original;
+    }
+
+    public Map<String, String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(Map<String, String> urls) {
+        this.urls = urls;
+    }
+}
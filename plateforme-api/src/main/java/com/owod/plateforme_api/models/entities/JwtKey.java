@@ -0,0 +1,43 @@
+package com.owod.plateforme_api.models.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Entity representing a JWT signing key created by a key rotation, stored in the "jwt_keys" MongoDB collection.
+ * <p>
+ * The ID is written in the "kid" header of the tokens signed with the key.
+ */
+@Document(collection = "jwt_keys")
+public class JwtKey {
+    @Id
+    private String id;          // Identifiant de la clé (en-tête "kid" des tokens)
+    private String secret;      // Secret HMAC chiffré (AES-GCM), ou encodé en Base64 par les anciennes versions
+    private Instant createdAt;  // Date de création, la plus récente signe les nouveaux tokens
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,137 @@
+package com.owod.plateforme_api.models.entities;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Entity representing an email waiting to be sent, stored in the "mail_outbox" MongoDB collection.
+ * <p>
+ * Messages are indexed by status and next attempt date for the outbox workers, and sent messages
+ * are removed by MongoDB a week after sending.
+ */
+@Document(collection = "mail_outbox")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class MailOutboxMessage {
+
+    /**
+     * Delivery state of an outbox message.
+     */
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    private String id;
+    private String from;            // Expéditeur
+    private String to;              // Destinataire
+    private String subject;         // Objet
+    private String text;            // Corps du message, en texte brut
+    private Status status;          // État de l'envoi
+    private int attempts;           // Nombre de tentatives d'envoi
+    private Instant nextAttemptAt;  // Date à partir de laquelle le message peut être (re)envoyé
+    private Instant lockedUntil;    // Fin de la réservation par un worker en cours d'envoi
+    private String lastError;       // Erreur de la dernière tentative échouée
+    private Instant createdAt;      // Date de mise en file
+    @Indexed(name = "sent_ttl", expireAfter = "7d")
+    private Instant sentAt;         // Date d'envoi
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+}
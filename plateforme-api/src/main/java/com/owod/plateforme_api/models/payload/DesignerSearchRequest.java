@@ -0,0 +1,19 @@
+package com.owod.plateforme_api.models.payload;
+
+/**
+ * Filters of a designer catalogue search, bound from the query parameters.
+ * Every filter is optional; the ones provided are combined with AND.
+ *
+ * @param profession exact profession of the designer
+ * @param specialty  specialty the designer must have
+ * @param sphere     sphere of influence the designer must have
+ * @param sector     favorite sector the designer must have
+ * @param country    exact country of residence of the designer
+ */
+public record DesignerSearchRequest(
+        String profession,
+        String specialty,
+        String sphere,
+        String sector,
+        String country
+) {}
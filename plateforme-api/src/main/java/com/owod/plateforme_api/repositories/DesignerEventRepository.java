@@ -0,0 +1,12 @@
+package com.owod.plateforme_api.repositories;
+
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * Repository interface for performing CRUD operations on DesignerEvent entities in MongoDB.
+ */
+public interface DesignerEventRepository extends MongoRepository<DesignerEvent, String> {
+
+    void deleteByDesignerId(String designerId);
+}
@@ -1,17 +1,23 @@
 package com.owod.plateforme_api.repositories;
 
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
 import com.owod.plateforme_api.models.entities.Designer;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository interface for performing CRUD operations on Designer entities in MongoDB.
- * Provides methods to find designers by specialty and by creator user ID.
+ * <p>
+ * List queries return {@link DesignerSummary} projections so that only the fields
+ * needed by list views are read from the collection.
  */
 public interface DesignerRepository extends MongoRepository<Designer, String> {
 
-    List<Designer> findBySpecialtiesContaining(String specialty);
+    List<DesignerSummary> findSummariesBySpecialtiesContaining(String specialty);
 
-    List<Designer> findByCreatedBy(String userId);
+    List<DesignerSummary> findSummariesByCreatedBy(String userId);
+
+    List<DesignerSummary> findSummariesByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,14 @@
+package com.owod.plateforme_api.repositories;
+
+import com.owod.plateforme_api.models.entities.JwtKey;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+/**
+ * Repository interface for performing CRUD operations on JwtKey entities in MongoDB.
+ */
+public interface JwtKeyRepository extends MongoRepository<JwtKey, String> {
+
+    List<JwtKey> findAllByOrderByCreatedAtAsc();
+}
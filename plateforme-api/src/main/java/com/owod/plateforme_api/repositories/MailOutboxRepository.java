@@ -0,0 +1,12 @@
+package com.owod.plateforme_api.repositories;
+
+import com.owod.plateforme_api.models.entities.MailOutboxMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * Repository interface for performing CRUD operations on MailOutboxMessage entities in MongoDB.
+ */
+public interface MailOutboxRepository extends MongoRepository<MailOutboxMessage, String> {
+
+    long countByStatus(MailOutboxMessage.Status status);
+}
@@ -1,6 +1,9 @@
 package com.owod.plateforme_api.security;
 
 import com.owod.plateforme_api.utils.JwtUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -12,24 +15,90 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Filter that intercepts incoming HTTP requests to authenticate users based on a JWT cookie.
  * <p>
  * Extracts the "jwt" cookie, validates the token, retrieves user information and roles,
- * and sets the authentication in the SecurityContext.
+ * and sets the authentication in the SecurityContext. The token is verified once per request
+ * through {@link JwtUtils#parse(String)}, which also skips verification for tokens already seen.
+ * Authority lists are shared between requests with the same roles.
+ * <p>
+ * Anonymous public endpoints ({@link SecurityConfig#ANONYMOUS_ENDPOINTS}) are skipped without
+ * looking for a cookie. Processed and skipped requests are counted in the
+ * {@code owod.jwt.filter.requests} metric.
  */
 @Component
 public class AuthTokenFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute marking a skipped request as counted, the filter being invoked both as a servlet
+     * filter and in the security chain.
+     */
+    private static final String SKIP_COUNTED_ATTRIBUTE = AuthTokenFilter.class.getName() + ".SKIP_COUNTED";
+
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final RequestMatcher anonymousEndpoints = new OrRequestMatcher(SecurityConfig.ANONYMOUS_ENDPOINTS);
+
+    private Counter filteredCounter;
+    private Counter skippedCounter;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    /**
+     * Immutable authority lists per role list. Roles only come from verified tokens,
+     * so the number of entries is bounded by the role combinations issued.
+     */
+    private final Map<List<String>, List<SimpleGrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the request counters.
+     */
+    @PostConstruct
+    void initCounters() {
+        filteredCounter = requestCounter("filtered");
+        skippedCounter = requestCounter("skipped");
+    }
+
+    private Counter requestCounter(String outcome) {
+        return Counter.builder("owod.jwt.filter.requests")
+                .description("Requests processed or skipped by the JWT filter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Skips anonymous public endpoints, which never read the authenticated user.
+     *
+     * @param request the incoming HTTP request
+     * @return true if the request targets an anonymous public endpoint
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!anonymousEndpoints.matches(request)) {
+            return false;
+        }
+        if (request.getAttribute(SKIP_COUNTED_ATTRIBUTE) == null) {
+            request.setAttribute(SKIP_COUNTED_ATTRIBUTE, Boolean.TRUE);
+            skippedCounter.increment();
+        }
+        return true;
+    }
+
     /**
      * Filters each request to check for a valid JWT in cookies. If present and valid,
      * sets the authenticated user details and authorities in the security context.
@@ -46,29 +115,27 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        filteredCounter.increment();
+
         // Extract token from cookies
         String token = extractTokenFromCookies(request);
 
-        if (token != null && jwtUtils.validateToken(token)) {
-            // Retrieve username and roles from token
-            String username = jwtUtils.getUsernameFromToken(token);
-            List<String> roles = jwtUtils.getRolesFromToken(token);
+        // Verify the token once and retrieve username and roles from its claims
+        JwtUtils.TokenClaims claims = token != null ? jwtUtils.parse(token) : null;
+
+        if (claims != null) {
+            String username = claims.userId();
 
-            List<SimpleGrantedAuthority> authorities = roles.stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .toList();
+            List<SimpleGrantedAuthority> authorities = authoritiesByRoles.computeIfAbsent(claims.roles(),
+                    roles -> roles.stream().map(SimpleGrantedAuthority::new).toList());
 
-            // Build UserDetails with authorities (password not used)
-            UserDetails userDetails = org.springframework.security.core.userdetails.User
-                    .withUsername(username)
-                    .password("")
-                    .authorities(authorities)
-                    .build();
+            // Build UserDetails with authorities and owned accounts (password not used)
+            UserDetails userDetails = new AuthenticatedUser(username, authorities, claims.designerId(), claims.companyId());
 
             // Create authentication token and set details
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            authentication.setDetails(detailsSource.buildDetails(request));
 
             // Set authentication in security context
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,35 @@
+package com.owod.plateforme_api.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal of a request authenticated by a JWT, carrying the accounts owned by the user
+ * as stated by the token claims.
+ * <p>
+ * Ownership checks use these IDs to grant access without reading the user document.
+ * They may be missing for an account assigned after the token was issued, so a missing
+ * or different ID must be confirmed against the database before denying access.
+ */
+public class AuthenticatedUser extends User {
+
+    private final String designerId;
+    private final String companyId;
+
+    public AuthenticatedUser(String userId, Collection<? extends GrantedAuthority> authorities,
+                             String designerId, String companyId) {
+        super(userId, "", authorities);
+        this.designerId = designerId;
+        this.companyId = companyId;
+    }
+
+    public String getDesignerId() {
+        return designerId;
+    }
+
+    public String getCompanyId() {
+        return companyId;
+    }
+}
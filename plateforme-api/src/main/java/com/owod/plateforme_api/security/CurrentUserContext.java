@@ -0,0 +1,107 @@
+package com.owod.plateforme_api.security;
+
+import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Request-scoped access to the authenticated user, read from the database at most once per request.
+ * <p>
+ * Security expressions, services and controllers asking for the current user within the same request
+ * all share the same lookup. Account IDs carried by the JWT claims are used without any lookup.
+ * Only usable while a request is being handled, see {@link #isActive()}.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * The authenticated user, or null until loaded.
+     */
+    private Optional<User> user;
+
+    /**
+     * Checks whether a request is being handled by the current thread, i.e. whether this context can be used.
+     *
+     * @return true if a request is bound to the current thread
+     */
+    public static boolean isActive() {
+        return RequestContextHolder.getRequestAttributes() != null;
+    }
+
+    /**
+     * Returns the ID of the authenticated user.
+     *
+     * @return the user ID, or null if the request is anonymous
+     */
+    public String getUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Returns the authenticated user, loading it on first call.
+     *
+     * @return an Optional containing the User, or empty if the request is anonymous or the user is not found
+     */
+    public Optional<User> getUser() {
+        if (user == null) {
+            String userId = getUserId();
+            user = userId == null ? Optional.empty() : userRepository.findByUserId(userId);
+        }
+        return user;
+    }
+
+    /**
+     * Finds a user by ID, sharing the request's lookup when it is the authenticated user.
+     *
+     * @param userId the ID of the user to find
+     * @return an Optional containing the User if found, or empty otherwise
+     */
+    public Optional<User> findUser(String userId) {
+        if (userId != null && userId.equals(getUserId())) {
+            return getUser();
+        }
+        return userRepository.findByUserId(userId);
+    }
+
+    /**
+     * Returns the ID of the designer owned by the authenticated user, from the JWT claims when present.
+     *
+     * @return the designer ID, or null if the user has no designer or is not found
+     */
+    public String getDesignerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser authenticated
+                && authenticated.getDesignerId() != null) {
+            return authenticated.getDesignerId();
+        }
+        return getUser().map(User::getDesignerId).orElse(null);
+    }
+
+    /**
+     * Keeps the loaded user up to date after a save made during the request.
+     *
+     * @param saved the saved user
+     */
+    public void onSaved(User saved) {
+        if (saved.getUserId() != null && saved.getUserId().equals(getUserId())) {
+            user = Optional.of(saved);
+        }
+    }
+}
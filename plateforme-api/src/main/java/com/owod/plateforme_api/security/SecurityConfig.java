@@ -3,8 +3,10 @@ package com.owod.plateforme_api.security;
 import com.owod.plateforme_api.models.entities.User;
 import com.owod.plateforme_api.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -18,11 +20,15 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 /**
  * Security configuration for HTTP endpoints, CORS, session management, and user authentication.
  * <p>
@@ -33,6 +39,52 @@ import java.util.stream.Collectors;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * Lowest BCrypt strength chosen by calibration, whatever the speed of the machine.
+     */
+    static final int MIN_BCRYPT_STRENGTH = 10;
+
+    /**
+     * Highest BCrypt strength chosen by calibration.
+     */
+    static final int MAX_BCRYPT_STRENGTH = 16;
+
+    /**
+     * Strength of the hashes timed during calibration.
+     */
+    private static final int CALIBRATION_STRENGTH = 8;
+
+    /**
+     * Endpoints open to anonymous users.
+     */
+    static final String[] PUBLIC_ENDPOINTS = {
+            "/auth/login", "/auth/logout", "/auth/register", "/auth/me",
+            "/designers", "/designers/all", "/designers/facets", "/designers/search", "/designers/*/events", "/events/upcoming", "/uploads/**", "/error", "/weekly", "/company/**",
+            "/password/**", "/contact"
+    };
+
+    /**
+     * Public endpoints that never read the authenticated user, so {@link AuthTokenFilter} does not even
+     * look for a token on them. Public endpoints that use the user when there is one, such as
+     * {@code /auth/me} or the company endpoints checking ownership, must not be listed here. Each of them must
+     * also match {@link #PUBLIC_ENDPOINTS}, or an anonymous request would be refused.
+     */
+    static final List<RequestMatcher> ANONYMOUS_ENDPOINTS = List.of(
+            antMatcher(HttpMethod.POST, "/auth/login"),
+            antMatcher(HttpMethod.POST, "/auth/logout"),
+            antMatcher(HttpMethod.POST, "/auth/register"),
+            antMatcher(HttpMethod.GET, "/designers"),
+            antMatcher(HttpMethod.GET, "/designers/all"),
+            antMatcher(HttpMethod.GET, "/designers/facets"),
+            antMatcher(HttpMethod.GET, "/designers/search"),
+            antMatcher(HttpMethod.GET, "/designers/*/events"),
+            antMatcher(HttpMethod.GET, "/events/upcoming"),
+            antMatcher(HttpMethod.GET, "/uploads/**"),
+            antMatcher(HttpMethod.GET, "/company/all"),
+            antMatcher("/password/**"),
+            antMatcher(HttpMethod.POST, "/contact")
+    );
+
     @Autowired
     private AuthTokenFilter authTokenFilter;
 
@@ -71,11 +123,10 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/auth/login", "/auth/logout", "/auth/register", "/auth/me",
-                                "/designers/all", "/uploads/**", "/error", "/weekly", "/company/**",
-                                "/password/**", "/contact")
+                        .requestMatchers(PUBLIC_ENDPOINTS)
                         .permitAll()
+                        .requestMatchers("/actuator/metrics/**")
+                        .hasRole("ADMIN")
                         .requestMatchers(
                                 "/users/**", "/designers/**")
                         .authenticated()
@@ -89,12 +140,44 @@ public class SecurityConfig {
 
     /**
      * Password encoder bean using BCrypt hashing algorithm.
+     * <p>
+     * The BCrypt strength (log2 of the number of rounds) is taken from {@code owod.password.bcrypt-strength}.
+     * When it is not set, it is calibrated at startup so that one hash takes about
+     * {@code owod.password.target-hash-ms} on this machine, within [{@value #MIN_BCRYPT_STRENGTH},
+     * {@value #MAX_BCRYPT_STRENGTH}]. Existing hashes keep their own strength and still match.
      *
      * @return a BCryptPasswordEncoder instance
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${owod.password.bcrypt-strength:0}") int strength,
+                                           @Value("${owod.password.target-hash-ms:250}") long targetHashMs) {
+        return new BCryptPasswordEncoder(strength > 0 ? strength : calibrateBCryptStrength(targetHashMs));
+    }
+
+    /**
+     * Finds the highest BCrypt strength whose hash time stays within the target.
+     * A cheap hash is timed, then extrapolated knowing that each strength step doubles the time.
+     *
+     * @param targetHashMs the time budget of one hash, in milliseconds
+     * @return the calibrated strength
+     */
+    static int calibrateBCryptStrength(long targetHashMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        probe.encode("calibration");
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        double hashMs = bestNanos / 1_000_000.0;
+        int strength = CALIBRATION_STRENGTH;
+        while (strength < MAX_BCRYPT_STRENGTH && hashMs * 2 <= targetHashMs) {
+            hashMs *= 2;
+            strength++;
+        }
+        return Math.max(MIN_BCRYPT_STRENGTH, strength);
     }
 
     /**
@@ -1,88 +1,459 @@
 package com.owod.plateforme_api.services;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.util.UUID;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Service implementation of ImageStorageService that uploads images to AWS S3.
  * <p>
- * Initializes an S3 client using configured AWS region and bucket name, and
- * provides methods to convert multipart files and upload them to S3.
+ * Objects are keyed by the SHA-256 of their content. The file is read once to compute the key, and is only
+ * sent if no object has this key yet, so re-uploading a picture costs a HEAD request instead of a PUT.
+ * <p>
+ * The multipart upload stream is sent straight to S3 with its known length, without buffering the file
+ * on the heap nor copying it to disk. Files larger than {@code aws.s3.multipart-threshold} are sent with an
+ * S3 multipart upload, part after part from the same stream.
+ * <p>
+ * The upload blocks the calling request thread until S3 answers, as the response carries the image URL.
+ * With {@code spring.threads.virtual.enabled}, request threads are virtual and the wait holds no platform thread.
+ * <p>
+ * Batches are uploaded concurrently on a pool of {@code aws.s3.upload-concurrency} threads shared by every
+ * request, so a batch takes about as long as its largest image while the connections to S3 stay bounded.
  */
 @Service
 @Profile("prod")
 public class AwsImageStorageService implements ImageStorageService {
 
+    /**
+     * Maximum number of keys of a DeleteObjects request, set by S3.
+     */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
     @Value("${aws.s3.region:eu-west-3}")
     private String region;
 
-    private S3Client s3Client;
+    /**
+     * Size from which files are sent with a multipart upload.
+     */
+    @Value("${aws.s3.multipart-threshold:16777216}")
+    private long multipartThreshold;
 
     /**
-     * Initializes the S3 client after the bean is constructed.
+     * Size of each part of a multipart upload, at least 5 MB for S3 except for the last part.
      */
+    @Value("${aws.s3.part-size:8388608}")
+    private long partSize;
+
+    /**
+     * Number of uploads of a batch sent to S3 at the same time, for all requests together.
+     */
+    @Value("${aws.s3.upload-concurrency:8}")
+    private int uploadConcurrency;
+
+    @Autowired
+    private S3Client s3Client;
+
+    private ExecutorService uploadExecutor;
+
     @PostConstruct
-    public void init() {
-        this.s3Client = S3Client.builder()
-                .region(Region.of(region))
-                .build();
+    void initExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        uploadExecutor = Executors.newFixedThreadPool(Math.max(1, uploadConcurrency), runnable -> {
+            Thread thread = new Thread(runnable, "s3-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        uploadExecutor.shutdownNow();
     }
 
     /**
-     * Uploads a MultipartFile to the configured S3 bucket with a random UUID prefix.
-     * <p>
-     * Converts the multipart file to a local File, uploads it, and returns the public URL.
-     * The temporary file is deleted after upload.
+     * Uploads a MultipartFile to the configured S3 bucket, under the SHA-256 of its content.
      *
      * @param file the multipart file to upload
      * @return the public URL of the uploaded image
-     * @throws IOException if an error occurs during file conversion or upload
+     * @throws IOException if the file cannot be read or the upload fails
      */
     @Override
     public String uploadImage(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        File convertedFile = convertMultipartFileToFile(file);
-
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(fileName)
-                .build();
+        return store(file).url();
+    }
 
-        s3Client.putObject(putObjectRequest, convertedFile.toPath());
+    /**
+     * Uploads a MultipartFile to the configured S3 bucket under the SHA-256 of its content,
+     * unless an object already has this key.
+     *
+     * @param file the multipart file to upload
+     * @return the public URL of the image and whether it was sent
+     * @throws IOException if the file cannot be read or the upload fails
+     */
+    @Override
+    public StoredImage store(MultipartFile file) throws IOException {
+        String fileName = ImageStorageService.contentName(file);
+        String url = urlPrefix() + fileName;
+        if (exists(url)) {
+            return new StoredImage(url, false);
+        }
+        long size = file.getSize();
 
-        // Delete the local temporary file
-        convertedFile.delete();
+        try (InputStream in = file.getInputStream()) {
+            if (size < multipartThreshold) {
+                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .contentType(file.getContentType())
+                        .contentLength(size)
+                        .build();
+                s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(in, size));
+            } else {
+                uploadInParts(fileName, file.getContentType(), in, size);
+            }
+        } catch (SdkException e) {
+            throw new IOException("Error uploading image to S3: " + e.getMessage(), e);
+        }
 
         // Return the public URL of the uploaded object
-        return "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + fileName;
+        return new StoredImage(url, true);
+    }
+
+    /**
+     * Uploads several files concurrently, after checking all of them.
+     * If an upload fails, the uploads still pending are cancelled and the objects created by the batch are
+     * reported to the caller.
+     *
+     * @param files the multipart files to upload
+     * @return the public URLs of the uploaded images, in the order of the files
+     * @throws IllegalArgumentException if a file is empty, before any upload
+     * @throws BatchUploadException if an upload fails or the calling thread is interrupted
+     */
+    @Override
+    public List<String> uploadImages(List<MultipartFile> files) throws IOException {
+        ImageStorageService.validateImages(files);
+        List<Future<StoredImage>> futures = new ArrayList<>();
+        for (MultipartFile file : files) {
+            futures.add(uploadExecutor.submit(() -> store(file)));
+        }
+
+        List<String> urls = new ArrayList<>();
+        try {
+            for (Future<StoredImage> future : futures) {
+                urls.add(future.get().url());
+            }
+            return urls;
+        } catch (ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            futures.forEach(future -> future.cancel(false));
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new BatchUploadException(createdUrls(futures), cause);
+        }
+    }
+
+    /**
+     * Waits for the uploads of a failed batch that were already running, so that none is left behind.
+     *
+     * @param futures the uploads of the batch, the pending ones being cancelled
+     * @return the URLs of the objects created by the batch, leaving out those that were already stored
+     */
+    private List<String> createdUrls(List<Future<StoredImage>> futures) {
+        List<String> urls = new ArrayList<>();
+        for (Future<StoredImage> future : futures) {
+            if (future.isCancelled()) {
+                continue;
+            }
+            try {
+                StoredImage stored = future.get();
+                if (stored.created()) {
+                    urls.add(stored.url());
+                }
+            } catch (ExecutionException ignored) {
+                // Failed upload, nothing stored
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return urls;
     }
 
     /**
-     * Converts a MultipartFile to a temporary File on the local filesystem.
+     * Stores a rendition in the bucket, next to its original. Renditions never change once written,
+     * so they are served with a long-lived cache header.
      *
-     * @param file the multipart file to convert
-     * @return a File containing the multipart file's data
-     * @throws IOException if an error occurs during file writing
+     * @param originalUrl the public URL of the original image
+     * @param name        the name of the rendition
+     * @param jpeg        the content of the rendition
+     * @return the public URL of the rendition
+     * @throws IOException if the upload fails
      */
-    private File convertMultipartFileToFile(MultipartFile file) throws IOException {
-        File convertedFile = new File(file.getOriginalFilename());
-        try (FileOutputStream fos = new FileOutputStream(convertedFile)) {
-            fos.write(file.getBytes());
+    @Override
+    public String storeRendition(String originalUrl, String name, byte[] jpeg) throws IOException {
+        String url = ImageStorageService.renditionUrl(originalUrl, name);
+        if (!url.startsWith(urlPrefix())) {
+            throw new IOException("Not an image of bucket " + bucketName + ": " + originalUrl);
+        }
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(url.substring(urlPrefix().length()))
+                            .contentType("image/jpeg")
+                            .contentLength((long) jpeg.length)
+                            .cacheControl("public, max-age=31536000, immutable")
+                            .build(),
+                    RequestBody.fromBytes(jpeg));
+        } catch (SdkException e) {
+            throw new IOException("Error uploading rendition to S3: " + e.getMessage(), e);
+        }
+        return url;
+    }
+
+    /**
+     * Tells whether an object of the configured bucket exists, with a HEAD request.
+     *
+     * @param url the public URL of the object
+     * @return true if the object exists, false if it does not or belongs to another location
+     * @throws IOException if the request fails
+     */
+    @Override
+    public boolean exists(String url) throws IOException {
+        if (url == null || !url.startsWith(urlPrefix())) {
+            return false;
+        }
+        try {
+            s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(url.substring(urlPrefix().length()))
+                    .build());
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Error reading image from S3: " + e.getMessage(), e);
+        } catch (SdkException e) {
+            throw new IOException("Error reading image from S3: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes an image of the configured bucket. URLs of other locations are ignored.
+     *
+     * @param url the public URL of the image
+     * @throws IOException if the deletion fails
+     */
+    @Override
+    public void delete(String url) throws IOException {
+        if (url == null || !url.startsWith(urlPrefix())) {
+            return;
+        }
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(url.substring(urlPrefix().length()))
+                    .build());
+        } catch (SdkException e) {
+            throw new IOException("Error deleting image from S3: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes several objects of the configured bucket with DeleteObjects requests of up to 1000 keys.
+     * URLs of other locations are ignored.
+     *
+     * @param urls the public URLs of the objects
+     * @throws IOException if a request fails or S3 could not delete an object
+     */
+    @Override
+    public void deleteAll(List<String> urls) throws IOException {
+        List<ObjectIdentifier> keys = new ArrayList<>();
+        for (String url : urls) {
+            if (url != null && url.startsWith(urlPrefix())) {
+                keys.add(ObjectIdentifier.builder().key(url.substring(urlPrefix().length())).build());
+            }
+        }
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<ObjectIdentifier> batch = keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size()));
+            try {
+                // Quiet mode: S3 only reports the keys it failed to delete
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(batch).quiet(true).build())
+                        .build());
+                if (response.hasErrors() && !response.errors().isEmpty()) {
+                    throw new IOException("Error deleting " + response.errors().size() + " images from S3: "
+                            + response.errors().get(0).message());
+                }
+            } catch (SdkException e) {
+                throw new IOException("Error deleting images from S3: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Lists the objects of the configured bucket, one page of keys after the other as the stream is consumed.
+     * A page that cannot be read fails the stream with an {@link SdkException}.
+     *
+     * @return the objects of the bucket
+     */
+    @Override
+    public Stream<StoredObject> listObjects() {
+        return s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder().bucket(bucketName).build())
+                .contents()
+                .stream()
+                .map(object -> new StoredObject(urlPrefix() + object.key(), object.size(), object.lastModified()));
+    }
+
+    /**
+     * @return the start of the public URLs of the bucket objects
+     */
+    private String urlPrefix() {
+        return "https://" + bucketName + ".s3." + region + ".amazonaws.com/";
+    }
+
+    /**
+     * Sends a stream with an S3 multipart upload, aborting the upload if a part fails
+     * so that S3 does not keep the parts already sent.
+     *
+     * @param key         the key of the object
+     * @param contentType the content type of the object
+     * @param in          the content of the object
+     * @param size        the length of the content
+     */
+    private void uploadInParts(String key, String contentType, InputStream in, long size) {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            long offset = 0;
+            for (int partNumber = 1; offset < size; partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength(length)
+                                .build(),
+                        RequestBody.fromInputStream(new PartInputStream(in, length), length)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                offset += length;
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (RuntimeException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            throw e;
+        }
+    }
+
+    /**
+     * View of the next bytes of a stream, ending after a given length and leaving the stream open,
+     * so that each part reads its own slice of the upload.
+     */
+    private static class PartInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        PartInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // The underlying stream is closed by uploadImage once every part is sent
         }
-        return convertedFile;
     }
 }
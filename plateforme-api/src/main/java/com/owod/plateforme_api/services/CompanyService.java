@@ -3,6 +3,7 @@ package com.owod.plateforme_api.services;
 import com.owod.plateforme_api.mappers.CompanyMapper;
 import com.owod.plateforme_api.models.dtos.CompanyDTO;
 import com.owod.plateforme_api.models.entities.Company;
+import com.owod.plateforme_api.models.entities.ImageRenditions;
 import com.owod.plateforme_api.repositories.CompanyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,8 +22,11 @@ public class CompanyService {
     @Autowired
     private CompanyMapper companyMapper;
 
-    @Autowired(required = false)
-    private ImageStorageService imageStorageService;
+    @Autowired
+    private ImageRenditionService imageRenditionService;
+
+    @Autowired
+    private ImageReferenceService imageReferenceService;
 
     public List<CompanyDTO> getAllDto() {
         return companyRepository.findAll().stream()
@@ -49,7 +53,17 @@ public class CompanyService {
     }
 
     public void deleteById(String id) {
+        Optional<Company> previous = companyRepository.findById(id);
         companyRepository.deleteById(id);
+        previous.ifPresent(company -> {
+            List<String> images = new ArrayList<>();
+            images.add(company.getLogoUrl());
+            images.add(company.getTeamPhotoUrl());
+            if (company.getWorksUrl() != null) {
+                images.addAll(company.getWorksUrl());
+            }
+            imageReferenceService.release(images);
+        });
     }
 
     public Company updateFields(String id, Company patch) {
@@ -76,9 +90,13 @@ public class CompanyService {
         try {
             var entity = companyRepository.findById(id).orElseThrow();
 
-            String url = imageStorageService.uploadImage(file);
-            entity.setLogoUrl(url);
-            return companyRepository.save(entity);
+            String previousLogo = entity.getLogoUrl();
+            ImageRenditions logo = imageRenditionService.upload(file);
+            entity.setLogoUrl(logo.getOriginal());
+            entity.setLogoRenditions(logo);
+            Company saved = companyRepository.save(entity);
+            imageReferenceService.release(previousLogo);
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException("Error uploading file", e);
         }
@@ -87,9 +105,13 @@ public class CompanyService {
     public Company updateTeamPhoto(String id, MultipartFile file) {
         try {
             var entity = companyRepository.findById(id).orElseThrow();
-            String url = imageStorageService.uploadImage(file);
-            entity.setTeamPhotoUrl(url);
-            return companyRepository.save(entity);
+            String previousTeamPhoto = entity.getTeamPhotoUrl();
+            ImageRenditions teamPhoto = imageRenditionService.upload(file);
+            entity.setTeamPhotoUrl(teamPhoto.getOriginal());
+            entity.setTeamPhotoRenditions(teamPhoto);
+            Company saved = companyRepository.save(entity);
+            imageReferenceService.release(previousTeamPhoto);
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException("Error uploading file", e);
         }
@@ -99,11 +121,13 @@ public class CompanyService {
         try {
             var entity = companyRepository.findById(id).orElseThrow();
             var urls = new ArrayList<>(entity.getWorksUrl() != null ? entity.getWorksUrl() : List.of());
-            for (var f : files) {
-                String url = imageStorageService.uploadImage(f);
-                urls.add(url);
+            var renditions = new ArrayList<>(entity.getWorksRenditions() != null ? entity.getWorksRenditions() : List.of());
+            for (ImageRenditions work : imageRenditionService.uploadAll(files)) {
+                urls.add(work.getOriginal());
+                renditions.add(work);
             }
             entity.setWorksUrl(urls);
+            entity.setWorksRenditions(renditions);
             return companyRepository.save(entity);
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -112,13 +136,26 @@ public class CompanyService {
 
     public Company deleteWork(String id, String url) {
         var entity = companyRepository.findById(id).orElseThrow();
+        // The same picture uploaded twice is listed and counted twice: one occurrence is removed and released
+        boolean removed = false;
         if (entity.getWorksUrl() != null) {
-            entity.setWorksUrl(entity.getWorksUrl().stream()
-                    .filter(u -> !u.equals(url))
-                    .toList());
+            var urls = new ArrayList<>(entity.getWorksUrl());
+            removed = urls.remove(url);
+            entity.setWorksUrl(urls);
         }
-        // Optionnel: imageStorage.delete(url);
-        return companyRepository.save(entity);
+        if (removed && entity.getWorksRenditions() != null) {
+            var renditions = new ArrayList<>(entity.getWorksRenditions());
+            renditions.stream()
+                    .filter(r -> url.equals(r.getOriginal()))
+                    .findFirst()
+                    .ifPresent(renditions::remove);
+            entity.setWorksRenditions(renditions);
+        }
+        Company saved = companyRepository.save(entity);
+        if (removed) {
+            imageReferenceService.release(url);
+        }
+        return saved;
     }
 
 
@@ -0,0 +1,224 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.dtos.PageDto;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import com.owod.plateforme_api.repositories.DesignerEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service layer for the calendar events of designers, stored in the "designer_events" collection.
+ * <p>
+ * Every operation targets single event documents, so a designer's calendar never grows the designer
+ * document and concurrent edits of different events do not conflict.
+ */
+@Service
+public class DesignerEventService {
+
+    /**
+     * Separator between the start date and the ID in an agenda cursor.
+     */
+    private static final String CURSOR_SEPARATOR = "_";
+
+    @Autowired
+    private DesignerEventRepository designerEventRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Retrieves the events of a designer, optionally restricted to those overlapping a date range,
+     * sorted by start date. An event without end date is treated as a single-day event.
+     *
+     * @param designerId the ID of the designer
+     * @param from the first day of the range, inclusive, or null for no lower bound
+     * @param to the last day of the range, inclusive, or null for no upper bound
+     * @return the matching events of the designer
+     * @throws ResponseStatusException if no designer is found with the given ID (HTTP 404)
+     */
+    public List<DesignerEvent> findEvents(String designerId, LocalDate from, LocalDate to) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("designerId").is(designerId));
+        if (to != null) {
+            criteria.add(Criteria.where("startDate").lte(to));
+        }
+        if (from != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("endDate").gte(from),
+                    new Criteria().andOperator(Criteria.where("endDate").is(null), Criteria.where("startDate").gte(from))
+            ));
+        }
+        Query query = Query.query(new Criteria().andOperator(criteria))
+                .with(Sort.by(Sort.Direction.ASC, "startDate", "id"));
+        List<DesignerEvent> events = mongoTemplate.find(query, DesignerEvent.class);
+
+        if (events.isEmpty() && !designerExists(designerId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Designer not found");
+        }
+        return events;
+    }
+
+    /**
+     * Retrieves one page of the platform-wide agenda: events starting from a date, in date order.
+     * <p>
+     * Pagination is keyset-based on (start date, ID), so each page is read from the index
+     * whatever its position. One extra event is fetched to know whether a next page exists.
+     *
+     * @param from   the first start date included
+     * @param cursor the cursor returned with the previous page, or null/blank for the first page
+     * @param size   the page size, capped to {@link DesignerSearchService#MAX_PAGE_SIZE}
+     * @return the requested page of events with the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public PageDto<DesignerEvent> findUpcoming(LocalDate from, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, DesignerSearchService.MAX_PAGE_SIZE));
+        Criteria criteria = Criteria.where("startDate").gte(from);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split(CURSOR_SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDate startDate;
+            try {
+                startDate = LocalDate.parse(parts[0]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("startDate").gt(startDate),
+                    Criteria.where("startDate").is(startDate).and("id").gt(parts[1])
+            ));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "startDate", "id"))
+                .limit(pageSize + 1);
+
+        List<DesignerEvent> events = mongoTemplate.find(query, DesignerEvent.class);
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            DesignerEvent last = events.get(pageSize - 1);
+            nextCursor = last.getStartDate() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new PageDto<>(events, null, pageSize, null, null, nextCursor);
+    }
+
+    /**
+     * Adds an event to the specified Designer's calendar.
+     * The event always gets an ID generated here: IDs are unique across the events of every designer,
+     * so an ID sent by the client is ignored rather than trusted.
+     *
+     * @param designerId the ID of the designer
+     * @param event the DesignerEvent to add
+     * @return the added event
+     * @throws UsernameNotFoundException if no designer is found with the given ID
+     */
+    public DesignerEvent addEvent(String designerId, DesignerEvent event) {
+        if (!designerExists(designerId)) {
+            throw new UsernameNotFoundException("Designer not found: " + designerId);
+        }
+        event.setId("event_" + UUID.randomUUID());
+        event.setDesignerId(designerId);
+        return designerEventRepository.insert(event);
+    }
+
+    /**
+     * Modifies an existing event of a Designer in place.
+     *
+     * @param designerId the ID of the designer owning the event
+     * @param eventToModify the event with updated data (must contain a valid event ID)
+     * @return the modified event
+     * @throws UsernameNotFoundException if no designer is found with the given ID
+     * @throws IllegalArgumentException if the designer has no such event
+     */
+    public DesignerEvent modifyEvent(String designerId, DesignerEvent eventToModify) {
+        Update update = new Update()
+                .set("title", eventToModify.getTitle())
+                .set("description", eventToModify.getDescription())
+                .set("startDate", eventToModify.getStartDate())
+                .set("endDate", eventToModify.getEndDate());
+
+        DesignerEvent event = mongoTemplate.findAndModify(
+                eventQuery(designerId, eventToModify.getId()),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                DesignerEvent.class);
+        return requireFound(event, designerId);
+    }
+
+    /**
+     * Removes an event from a Designer's calendar.
+     *
+     * @param designerId the ID of the designer owning the event
+     * @param eventToRemove the event to remove (must contain a valid event ID)
+     * @return the removed event
+     * @throws UsernameNotFoundException if no designer is found with the given ID
+     * @throws IllegalArgumentException if the designer has no such event
+     */
+    public DesignerEvent deleteEvent(String designerId, DesignerEvent eventToRemove) {
+        DesignerEvent event = mongoTemplate.findAndRemove(
+                eventQuery(designerId, eventToRemove.getId()),
+                DesignerEvent.class);
+        return requireFound(event, designerId);
+    }
+
+    /**
+     * Removes every event of a designer, e.g. when the designer is deleted.
+     *
+     * @param designerId the ID of the designer
+     */
+    public void deleteAllOfDesigner(String designerId) {
+        designerEventRepository.deleteByDesignerId(designerId);
+    }
+
+    /**
+     * Builds the query matching an event owned by the given designer.
+     *
+     * @param designerId the ID of the designer
+     * @param eventId the ID of the event
+     * @return the query matching the event
+     */
+    private Query eventQuery(String designerId, String eventId) {
+        return Query.query(Criteria.where("id").is(eventId).and("designerId").is(designerId));
+    }
+
+    /**
+     * Checks the result of an event update.
+     *
+     * @param event the event returned by the update, or null if none matched
+     * @param designerId the ID of the designer, used to tell a missing designer from a missing event
+     * @return the event
+     * @throws UsernameNotFoundException if no designer is found with the given ID
+     * @throws IllegalArgumentException if the designer has no such event
+     */
+    private DesignerEvent requireFound(DesignerEvent event, String designerId) {
+        if (event == null) {
+            if (!designerExists(designerId)) {
+                throw new UsernameNotFoundException("Designer not found: " + designerId);
+            }
+            throw new IllegalArgumentException("Event not found for designer: " + designerId);
+        }
+        return event;
+    }
+
+    private boolean designerExists(String designerId) {
+        return designerId != null
+                && mongoTemplate.exists(Query.query(Criteria.where("id").is(designerId)), Designer.class);
+    }
+}
@@ -0,0 +1,292 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.dtos.DesignerFacets;
+import com.owod.plateforme_api.models.dtos.FacetCount;
+import com.owod.plateforme_api.models.entities.Designer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service providing the distinct values and counts used by the designer catalogue filter menus.
+ * <p>
+ * Counts are computed once with a single {@code $facet} aggregation, then kept in memory and
+ * updated incrementally by {@link DesignerService} on every save and delete, so reading the facets
+ * never touches the collection. A periodic reload corrects any drift caused by writes made outside
+ * of {@link DesignerService}.
+ * <p>
+ * {@link DesignerService} wraps each write between {@link #beginWrite()} and {@link #endWrite()}. A reload
+ * waits for the writes in progress to end before it aggregates, then only replaces the counts if no write ran
+ * meanwhile, as the aggregation may or may not include such a write; otherwise it retries, and keeps the
+ * incrementally updated counts if writes never stop.
+ */
+@Service
+public class DesignerFacetService {
+
+    /**
+     * Catalogue filters, with the Designer field they are computed from.
+     */
+    private enum Facet {
+        PROFESSION("profession", false, d -> Collections.singletonList(d.getProfession())),
+        SPECIALTY("specialties", true, Designer::getSpecialties),
+        SPHERE("spheresOfInfluence", true, Designer::getSpheresOfInfluence),
+        SECTOR("favoriteSectors", true, Designer::getFavoriteSectors),
+        COUNTRY("countryOfResidence", false, d -> Collections.singletonList(d.getCountryOfResidence()));
+
+        private final String field;
+        private final boolean array;
+        private final Function<Designer, List<String>> values;
+
+        Facet(String field, boolean array, Function<Designer, List<String>> values) {
+            this.field = field;
+            this.array = array;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Aggregations attempted by a reload before giving up because of concurrent writes.
+     */
+    private static final int RELOAD_ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Time an attempt waits for the writes in progress to end before giving up.
+     */
+    @Value("${owod.facets.reload-wait-ms:5000}")
+    private long reloadWaitMs;
+
+    /**
+     * Counts per facet and value, or null until first loaded. Guarded by {@code this}.
+     */
+    private Map<Facet, Map<String, Long>> counts;
+
+    /**
+     * Last facets built from {@link #counts}, or null when they changed since.
+     */
+    private volatile DesignerFacets snapshot;
+
+    /**
+     * Incremented when a write begins and ends, so that a reload detects the writes made while it aggregated.
+     * Guarded by {@code this}.
+     */
+    private long writeVersion;
+
+    /**
+     * Writes begun and not ended yet. Guarded by {@code this}.
+     */
+    private int writesInProgress;
+
+    /**
+     * Returns the facets of the designer catalogue, loading the counts on first call.
+     *
+     * @return the distinct values and counts of each filter, most frequent first
+     */
+    public DesignerFacets getFacets() {
+        DesignerFacets current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (counts == null) {
+                counts = loadCounts();
+            }
+            if (snapshot == null) {
+                snapshot = buildSnapshot();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Marks the start of a write to the collection, before it is sent.
+     * Must be followed by {@link #endWrite()}, whether the write succeeds or not.
+     */
+    public synchronized void beginWrite() {
+        writesInProgress++;
+        writeVersion++;
+    }
+
+    /**
+     * Marks the end of a write begun with {@link #beginWrite()}, once its changes are applied to the counts.
+     */
+    public synchronized void endWrite() {
+        writesInProgress--;
+        writeVersion++;
+        if (writesInProgress == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Applies the changes of a saved designer to the counts.
+     *
+     * @param previous the designer as it was before the save, or null if it is new
+     * @param saved    the designer as saved
+     */
+    public synchronized void onSaved(Designer previous, Designer saved) {
+        if (counts == null) {
+            return;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(saved, 1);
+        snapshot = null;
+    }
+
+    /**
+     * Removes a deleted designer from the counts.
+     *
+     * @param deleted the designer as it was before deletion
+     */
+    public synchronized void onDeleted(Designer deleted) {
+        if (counts == null || deleted == null) {
+            return;
+        }
+        apply(deleted, -1);
+        snapshot = null;
+    }
+
+    /**
+     * Reloads the counts from the collection.
+     * Runs periodically to correct drift from writes made outside of {@link DesignerService}.
+     * If designers are written during every attempt, the current counts are kept until the next reload.
+     */
+    @Scheduled(initialDelayString = "${owod.facets.reload-ms:3600000}",
+            fixedDelayString = "${owod.facets.reload-ms:3600000}")
+    public void reload() {
+        for (int attempt = 0; attempt < RELOAD_ATTEMPTS; attempt++) {
+            long startVersion;
+            synchronized (this) {
+                long deadline = System.currentTimeMillis() + reloadWaitMs;
+                try {
+                    for (long remaining = reloadWaitMs; writesInProgress > 0 && remaining > 0;
+                         remaining = deadline - System.currentTimeMillis()) {
+                        wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (writesInProgress > 0) {
+                    continue;
+                }
+                startVersion = writeVersion;
+            }
+            Map<Facet, Map<String, Long>> loaded = loadCounts();
+            synchronized (this) {
+                if (writeVersion == startVersion) {
+                    counts = loaded;
+                    snapshot = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the counts of every facet with a single {@code $facet} aggregation.
+     *
+     * @return the counts per facet and value
+     */
+    private Map<Facet, Map<String, Long>> loadCounts() {
+        FacetOperation facetOperation = null;
+        for (Facet facet : Facet.values()) {
+            AggregationOperation[] pipeline = facet.array
+                    ? new AggregationOperation[]{Aggregation.unwind(facet.field), Aggregation.group(facet.field).count().as("count")}
+                    : new AggregationOperation[]{Aggregation.group(facet.field).count().as("count")};
+            facetOperation = facetOperation == null
+                    ? Aggregation.facet(pipeline).as(facet.name())
+                    : facetOperation.and(pipeline).as(facet.name());
+        }
+
+        Document result = mongoTemplate
+                .aggregate(Aggregation.newAggregation(facetOperation), Designer.class, Document.class)
+                .getUniqueMappedResult();
+
+        Map<Facet, Map<String, Long>> loaded = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            Map<String, Long> values = new HashMap<>();
+            List<Document> buckets = result == null ? List.of() : result.getList(facet.name(), Document.class, List.of());
+            for (Document bucket : buckets) {
+                Object value = bucket.get("_id");
+                if (value instanceof String s && !s.isEmpty()) {
+                    values.put(s, ((Number) bucket.get("count")).longValue());
+                }
+            }
+            loaded.put(facet, values);
+        }
+        return loaded;
+    }
+
+    /**
+     * Adds the values of a designer to the counts, or removes them for a negative delta.
+     * Values whose count drops to zero are removed.
+     *
+     * @param designer the designer whose values are counted
+     * @param delta    1 to add the designer, -1 to remove it
+     */
+    private void apply(Designer designer, long delta) {
+        for (Facet facet : Facet.values()) {
+            List<String> values = facet.values.apply(designer);
+            if (values == null) {
+                continue;
+            }
+            Map<String, Long> facetCounts = counts.get(facet);
+            for (String value : values) {
+                if (value != null && !value.isEmpty()) {
+                    facetCounts.compute(value, (k, count) -> {
+                        long updated = (count == null ? 0 : count) + delta;
+                        return updated > 0 ? updated : null;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the facets DTO from the current counts.
+     *
+     * @return the facets, each sorted by count descending then value
+     */
+    private DesignerFacets buildSnapshot() {
+        return new DesignerFacets(
+                sorted(Facet.PROFESSION),
+                sorted(Facet.SPECIALTY),
+                sorted(Facet.SPHERE),
+                sorted(Facet.SECTOR),
+                sorted(Facet.COUNTRY)
+        );
+    }
+
+    /**
+     * Sorts the counts of one facet, most frequent first.
+     *
+     * @param facet the facet to sort
+     * @return the sorted counts
+     */
+    private List<FacetCount> sorted(Facet facet) {
+        return counts.get(facet).entrySet().stream()
+                .map(e -> new FacetCount(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(FacetCount::count).reversed()
+                        .thenComparing(FacetCount::value))
+                .toList();
+    }
+}
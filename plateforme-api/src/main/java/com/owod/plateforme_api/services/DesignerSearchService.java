@@ -0,0 +1,219 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.dtos.PageDto;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.payload.DesignerSearchRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service layer for the designer catalogue: multi-criteria filtering, full-text search and pagination.
+ * <p>
+ * Filters are translated into a single MongoDB query backed by the indexes declared on
+ * {@link Designer}, full-text searches are ranked by {@link DesignerTextIndexService},
+ * and results are read as {@link DesignerSummary} projections.
+ */
+@Service
+public class DesignerSearchService {
+
+    /**
+     * Upper bound applied to every requested page size.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Fields a catalogue page may be sorted on.
+     */
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("id", "firstname", "lastname", "profession", "countryOfResidence");
+
+    /**
+     * Fields read from the collection to build a {@link DesignerSummary}.
+     */
+    private static final String[] SUMMARY_FIELDS =
+            {"id", "firstname", "lastname", "profilePicture", "profilePictureRenditions", "profession", "specialties",
+             "countryOfResidence"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DesignerTextIndexService designerTextIndexService;
+
+    /**
+     * Searches designers using offset pagination.
+     * <p>
+     * The sort is expressed as "field" or "field,asc|desc" and is always completed by the ID
+     * so that pages stay stable when several designers share the same sort value.
+     *
+     * @param request the filters to apply
+     * @param page    the zero-based page number
+     * @param size    the page size, capped to {@link #MAX_PAGE_SIZE}
+     * @param sort    the optional sort expression
+     * @return the requested page of designer summaries with its totals
+     * @throws IllegalArgumentException if the page is negative or the sort field is not allowed
+     */
+    public PageDto<DesignerSummary> search(DesignerSearchRequest request, int page, int size, String sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        PageRequest pageRequest = PageRequest.of(page, clampPageSize(size), parseSort(sort));
+        Query query = buildQuery(request).with(pageRequest);
+
+        List<DesignerSummary> content = findSummaries(query);
+        Page<DesignerSummary> result = PageableExecutionUtils.getPage(content, pageRequest,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Designer.class));
+        return new PageDto<>(result.getContent(), page, pageRequest.getPageSize(),
+                result.getTotalElements(), result.getTotalPages(), null);
+    }
+
+    /**
+     * Searches designers using keyset pagination on the ID.
+     * <p>
+     * Unlike offset pagination, the cost of a page does not grow with its position and no
+     * count query is run. One extra document is fetched to know whether a next page exists.
+     *
+     * @param request the filters to apply
+     * @param cursor  the ID of the last designer of the previous page, or null/blank for the first page
+     * @param size    the page size, capped to {@link #MAX_PAGE_SIZE}
+     * @return the requested page of designer summaries with the cursor of the next one
+     */
+    public PageDto<DesignerSummary> searchAfter(DesignerSearchRequest request, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        Query query = buildQuery(request);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(Criteria.where("id").gt(cursor));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(pageSize + 1);
+
+        List<DesignerSummary> designers = findSummaries(query);
+        String nextCursor = null;
+        if (designers.size() > pageSize) {
+            designers = designers.subList(0, pageSize);
+            nextCursor = designers.get(pageSize - 1).id();
+        }
+        return new PageDto<>(designers, null, pageSize, null, null, nextCursor);
+    }
+
+    /**
+     * Searches designers by name, profession and biography, best matches first.
+     * <p>
+     * Matching and ranking are done in memory by {@link DesignerTextIndexService},
+     * without reading the collection.
+     *
+     * @param text the searched text
+     * @param page the zero-based page number
+     * @param size the page size, capped to {@link #MAX_PAGE_SIZE}
+     * @return the requested page of designer summaries with its totals
+     * @throws IllegalArgumentException if the text is blank or the page is negative
+     */
+    public PageDto<DesignerSummary> searchText(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text must not be blank");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        int pageSize = clampPageSize(size);
+        int offset = (int) Math.min((long) page * pageSize, Integer.MAX_VALUE);
+        DesignerTextIndexService.Matches matches = designerTextIndexService.search(text, offset, pageSize);
+        int totalPages = (matches.total() + pageSize - 1) / pageSize;
+        return new PageDto<>(matches.designers(), page, pageSize, (long) matches.total(), totalPages, null);
+    }
+
+    /**
+     * Builds the query matching every filter provided in the request.
+     *
+     * @param request the filters to apply, may be null
+     * @return a query without sort nor pagination
+     */
+    private Query buildQuery(DesignerSearchRequest request) {
+        Query query = new Query();
+        if (request == null) {
+            return query;
+        }
+        List<Criteria> criteria = new ArrayList<>();
+        addIfPresent(criteria, "profession", request.profession());
+        addIfPresent(criteria, "specialties", request.specialty());
+        addIfPresent(criteria, "spheresOfInfluence", request.sphere());
+        addIfPresent(criteria, "favoriteSectors", request.sector());
+        addIfPresent(criteria, "countryOfResidence", request.country());
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        return query;
+    }
+
+    /**
+     * Adds an equality criterion on the field when the value is not blank.
+     * On array fields, MongoDB matches documents whose array contains the value.
+     *
+     * @param criteria the criteria list to complete
+     * @param field    the Designer field to filter on
+     * @param value    the trimmed value to match, ignored if null or blank
+     */
+    private void addIfPresent(List<Criteria> criteria, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            criteria.add(Criteria.where(field).is(value.trim()));
+        }
+    }
+
+    /**
+     * Runs the query restricted to the summary fields.
+     *
+     * @param query the query to run
+     * @return the matching designer summaries
+     */
+    private List<DesignerSummary> findSummaries(Query query) {
+        query.fields().include(SUMMARY_FIELDS);
+        return mongoTemplate.query(Designer.class)
+                .as(DesignerSummary.class)
+                .matching(query)
+                .all();
+    }
+
+    /**
+     * Keeps a requested page size between 1 and {@link #MAX_PAGE_SIZE}.
+     *
+     * @param size the requested page size
+     * @return the page size to use
+     */
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Parses a "field" or "field,asc|desc" sort expression, completed by the ID as tie-breaker.
+     *
+     * @param sort the sort expression, or null/blank to sort by ID only
+     * @return the corresponding Sort
+     * @throws IllegalArgumentException if the field or direction is not allowed
+     */
+    private Sort parseSort(String sort) {
+        Sort idSort = Sort.by(Sort.Direction.ASC, "id");
+        if (sort == null || sort.isBlank()) {
+            return idSort;
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + field);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+        return "id".equals(field) ? Sort.by(direction, "id") : Sort.by(direction, field).and(idSort);
+    }
+}
@@ -1,27 +1,61 @@
 package com.owod.plateforme_api.services;
 
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
 import com.owod.plateforme_api.models.entities.Designer;
-import com.owod.plateforme_api.models.entities.DesignerEvent;
 import com.owod.plateforme_api.repositories.DesignerRepository;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Service layer for managing Designer entities and their related events.
+ * Service layer for managing Designer entities.
  * <p>
- * Provides methods for CRUD operations on designers and for adding, modifying,
- * and deleting DesignerEvent instances associated with a Designer.
+ * Provides methods for CRUD operations on designers; their events are managed by {@link DesignerEventService}.
+ * <p>
+ * Designers looked up by ID are cached in {@link #DESIGNER_CACHE}, bounded in size and time
+ * by the {@code spring.cache.caffeine.spec} property. Every method modifying a designer evicts it,
+ * so writes going through this service (including {@link TransferService}) are never served stale.
+ * The cache holds a snapshot that is never handed out: each lookup returns its own copy, so callers may
+ * edit it before saving without affecting concurrent readers, nor the cache if the save fails.
  */
 @Service
 public class DesignerService {
 
+    /**
+     * Name of the cache holding designers by ID.
+     */
+    public static final String DESIGNER_CACHE = "designers";
+
     @Autowired
     private DesignerRepository designerRepository;
 
+    @Autowired
+    private DesignerEventService designerEventService;
+
+    @Autowired
+    private DesignerFacetService designerFacetService;
+
+    @Autowired
+    private DesignerTextIndexService designerTextIndexService;
+
+    @Autowired
+    private ImageReferenceService imageReferenceService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MongoConverter mongoConverter;
+
     /**
      * Retrieves all Designer entities.
      *
@@ -32,133 +66,144 @@ public class DesignerService {
     }
 
     /**
-     * Saves or updates a Designer entity.
+     * Saves or updates a Designer entity and updates the catalogue facet counts and search index accordingly.
+     * The designer as it was before the save is taken from the cache, where the lookup preceding an update
+     * put it, and only read from the collection if it is not cached.
      *
      * @param designer the designer to save
      * @return the persisted Designer entity
      */
+    @CacheEvict(cacheNames = DESIGNER_CACHE, key = "#designer.id", condition = "#designer.id != null")
     public Designer save(Designer designer) {
-        return designerRepository.save(designer);
+        Designer previous = null;
+        if (designer.getId() != null) {
+            previous = cached(designer.getId());
+            if (previous == null) {
+                previous = designerRepository.findById(designer.getId()).orElse(null);
+            }
+        }
+        Designer saved;
+        designerFacetService.beginWrite();
+        try {
+            saved = designerRepository.save(designer);
+            designerFacetService.onSaved(previous, saved);
+        } finally {
+            designerFacetService.endWrite();
+        }
+        designerTextIndexService.onSaved(saved);
+        return saved;
     }
 
     /**
-     * Finds a Designer by its unique identifier.
+     * Finds a Designer by its unique identifier, from the cache when possible.
+     * Missing designers are not cached.
+     * <p>
+     * A miss is loaded by an atomic Caffeine computation: an eviction by a concurrent save waits for it to end,
+     * then removes what it loaded, so a designer read before a save is never cached after it.
      *
      * @param id the ID of the designer to retrieve
-     * @return an Optional containing the Designer if found, or empty otherwise
+     * @return an Optional containing a copy of the Designer owned by the caller if found, or empty otherwise
      */
+    @SuppressWarnings("unchecked")
     public Optional<Designer> findById(String id) {
+        Cache cache = cacheManager.getCache(DESIGNER_CACHE);
+        if (cache != null
+                && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            Object snapshot = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine)
+                    .get(id, key -> designerRepository.findById(id).orElse(null));
+            return Optional.ofNullable((Designer) snapshot).map(this::copy);
+        }
         return designerRepository.findById(id);
     }
 
     /**
-     * Finds designers that have a given specialty.
+     * Reads the snapshot of a designer from the cache. The snapshot must not be modified nor returned to callers.
      *
-     * @param specialty the specialty to filter by
-     * @return a list of matching Designer entities
+     * @param id the ID of the designer
+     * @return the cached designer, or null if it is not cached
      */
-    public List<Designer> findBySpecialty(String specialty) {
-        return designerRepository.findBySpecialtiesContaining(specialty);
+    private Designer cached(String id) {
+        Cache cache = cacheManager.getCache(DESIGNER_CACHE);
+        return cache == null ? null : cache.get(id, Designer.class);
     }
 
     /**
-     * Deletes a Designer by its ID.
+     * Copies a designer deeply, through its document mapping, so that the copy shares no list with it.
      *
-     * @param designerId the ID of the designer to delete
+     * @param designer the designer to copy
+     * @return an independent copy of the designer
      */
-    public void delete(String designerId) {
-        designerRepository.deleteById(designerId);
+    private Designer copy(Designer designer) {
+        Document document = new Document();
+        mongoConverter.write(designer, document);
+        return mongoConverter.read(Designer.class, document);
     }
 
     /**
-     * Adds an event to the specified Designer's event list.
+     * Finds several designers in a single query, bypassing the cache.
      *
-     * @param designerId the ID of the designer to update
-     * @param event the DesignerEvent to add
-     * @return the updated Designer entity
-     * @throws UsernameNotFoundException if no designer is found with the given ID
+     * @param ids the IDs of the designers to retrieve
+     * @return the designers found, in no particular order
      */
-    public Designer addEvent(String designerId, DesignerEvent event) {
-        Designer designer = designerRepository.findById(designerId)
-                .orElseThrow(() -> new UsernameNotFoundException("Designer not found: " + designerId));
-
-        designer.getEvents().add(event);
-        return designerRepository.save(designer);
+    public List<Designer> findAllById(Collection<String> ids) {
+        return designerRepository.findAllById(ids);
     }
 
     /**
-     * Modifies an existing event of a Designer.
+     * Finds the summaries of several designers in a single query.
      *
-     * @param designerId the ID of the designer containing the event
-     * @param eventToModify the event with updated data (must contain a valid event ID)
-     * @return the updated Designer entity
-     * @throws UsernameNotFoundException if no designer is found with the given ID
-     * @throws IllegalArgumentException if the specified event is not found
+     * @param ids the IDs of the designers to retrieve
+     * @return the designer summaries found, in no particular order
      */
-    public Designer modifyEvent(String designerId, DesignerEvent eventToModify) {
-        Designer designer = designerRepository.findById(designerId)
-                .orElseThrow(() -> new UsernameNotFoundException("Designer not found: " + designerId));
-
-        List<DesignerEvent> events = designer.getEvents();
-        int indexToModify = -1;
-        for (int i = 0; i < events.size(); i++) {
-            if (events.get(i).getId().equals(eventToModify.getId())) {
-                indexToModify = i;
-                break;
-            }
-        }
-
-        if (indexToModify != -1) {
-            DesignerEvent existingEvent = events.get(indexToModify);
-            existingEvent.setDescription(eventToModify.getDescription());
-            existingEvent.setTitle(eventToModify.getTitle());
-            existingEvent.setStartDate(eventToModify.getStartDate());
-            existingEvent.setEndDate(eventToModify.getEndDate());
-        } else {
-            throw new IllegalArgumentException("Event not found for designer: " + designerId);
-        }
-
-        return designerRepository.save(designer);
+    public List<DesignerSummary> findSummariesByIds(Collection<String> ids) {
+        return designerRepository.findSummariesByIdIn(ids);
     }
 
     /**
-     * Removes an event from a Designer's event list.
+     * Finds designers that have a given specialty.
      *
-     * @param designerId the ID of the designer containing the event
-     * @param eventToRemove the event to remove (must contain a valid event ID)
-     * @return the updated Designer entity
-     * @throws UsernameNotFoundException if no designer is found with the given ID
-     * @throws IllegalArgumentException if the specified event is not found
+     * @param specialty the specialty to filter by
+     * @return a list of matching designer summaries
      */
-    public Designer deleteEvent(String designerId, DesignerEvent eventToRemove) {
-        Designer designer = designerRepository.findById(designerId)
-                .orElseThrow(() -> new UsernameNotFoundException("Designer not found: " + designerId));
-
-        List<DesignerEvent> events = designer.getEvents();
-        int indexToDelete = -1;
-        for (int i = 0; i < events.size(); i++) {
-            if (events.get(i).getId().equals(eventToRemove.getId())) {
-                indexToDelete = i;
-                break;
-            }
-        }
+    public List<DesignerSummary> findBySpecialty(String specialty) {
+        return designerRepository.findSummariesBySpecialtiesContaining(specialty);
+    }
 
-        if (indexToDelete != -1) {
-            events.remove(indexToDelete);
-        } else {
-            throw new IllegalArgumentException("Event not found for designer: " + designerId);
+    /**
+     * Deletes a Designer by its ID, with its events, and removes it from the catalogue facet counts and search index.
+     * Its images are released, and deleted from the storage if nothing else uses them.
+     *
+     * @param designerId the ID of the designer to delete
+     */
+    @CacheEvict(cacheNames = DESIGNER_CACHE)
+    public void delete(String designerId) {
+        Optional<Designer> previous = designerRepository.findById(designerId);
+        designerFacetService.beginWrite();
+        try {
+            designerRepository.deleteById(designerId);
+            previous.ifPresent(designerFacetService::onDeleted);
+        } finally {
+            designerFacetService.endWrite();
         }
-
-        return designerRepository.save(designer);
+        designerEventService.deleteAllOfDesigner(designerId);
+        designerTextIndexService.onDeleted(designerId);
+        previous.ifPresent(designer -> {
+            List<String> images = new ArrayList<>();
+            images.add(designer.getProfilePicture());
+            if (designer.getMajorWorks() != null) {
+                images.addAll(designer.getMajorWorks());
+            }
+            imageReferenceService.release(images);
+        });
     }
 
     /**
      * Retrieves designers created by a specific admin user.
      *
      * @param userId the ID of the admin user who created designers
-     * @return a list of Designer entities created by the specified user
+     * @return a list of designer summaries created by the specified user
      */
-    public List<Designer> getDesignersCreatedByAdmin(String userId) {
-        return designerRepository.findByCreatedBy(userId);
+    public List<DesignerSummary> getDesignersCreatedByAdmin(String userId) {
+        return designerRepository.findSummariesByCreatedBy(userId);
     }
 }
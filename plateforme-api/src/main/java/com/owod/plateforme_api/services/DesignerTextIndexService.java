@@ -0,0 +1,441 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.entities.Designer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index used for the full-text search of designers.
+ * <p>
+ * Names, profession and biography are split into accent- and case-insensitive terms. Each term
+ * keeps the designers containing it with a weight depending on the field it was found in
+ * (name before profession before biography). Designers are numbered internally so that postings
+ * and scores are held in primitive arrays, which keeps ranking fast even for very common terms.
+ * The summary of each designer is kept alongside so that results are served without reading the collection.
+ * The index is loaded from the collection on first use, kept in sync by {@link DesignerService} on every
+ * save and delete, and periodically reloaded to correct drift from writes made outside of {@link DesignerService}.
+ * Saves and deletes made while a reload streams the collection are replayed onto the reloaded index.
+ */
+@Service
+public class DesignerTextIndexService {
+
+    /**
+     * One page of matching designers.
+     *
+     * @param designers the summaries of the page, best match first
+     * @param total     the total number of matching designers
+     */
+    public record Matches(List<DesignerSummary> designers, int total) {}
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int PROFESSION_WEIGHT = 2;
+    private static final int BIOGRAPHY_WEIGHT = 1;
+
+    /**
+     * Shortest term indexed or searched; shorter tokens are too common to be meaningful.
+     */
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Current index, or null until first loaded. Replaced as a whole on reload.
+     */
+    private Index index;
+
+    /**
+     * Changes made while a reload streams the collection, or null when no reload runs. Guarded by {@link #lock}.
+     * Each change replaces or removes a designer as a whole, so replaying one the stream already saw is harmless.
+     */
+    private List<Consumer<Index>> changesDuringReload;
+
+    /**
+     * Whether the index has been loaded at least once.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * Searches the designers matching every term of the text, best matches first.
+     * <p>
+     * Each term of the text matches indexed terms starting with it, an exact match scoring twice
+     * as much as a prefix match. A designer's score is the sum of its best weight for each term,
+     * ties being broken by ID so that pages stay stable.
+     *
+     * @param text   the searched text
+     * @param offset the number of best matches to skip
+     * @param limit  the maximum number of designers to return
+     * @return the ranked summaries of the requested page and the total number of matches
+     */
+    public Matches search(String text, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(text)));
+        if (terms.isEmpty()) {
+            return new Matches(List.of(), 0);
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            return index.search(terms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the indexed terms of a saved designer.
+     *
+     * @param saved the designer as saved
+     */
+    public void onSaved(Designer saved) {
+        DesignerSummary summary = summaryOf(saved);
+        Map<String, Integer> terms = termsOf(saved);
+        apply(target -> {
+            target.remove(saved.getId());
+            target.add(summary, terms);
+        });
+    }
+
+    /**
+     * Removes a deleted designer from the index.
+     *
+     * @param designerId the ID of the deleted designer
+     */
+    public void onDeleted(String designerId) {
+        apply(target -> target.remove(designerId));
+    }
+
+    /**
+     * Applies a change to the current index, and records it for the reload in progress if any.
+     *
+     * @param change the change to apply
+     */
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the collection, then replays the saves and deletes made meanwhile.
+     * Runs periodically to correct drift from writes made outside of {@link DesignerService}.
+     */
+    @Scheduled(initialDelayString = "${owod.search.reload-ms:3600000}",
+            fixedDelayString = "${owod.search.reload-ms:3600000}")
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index loadedIndex = new Index();
+        try {
+            Query query = new Query();
+            query.fields().include("firstname", "lastname", "profilePicture", "profilePictureRenditions", "profession",
+                    "specialties", "countryOfResidence", "biography");
+            try (Stream<Designer> designers = mongoTemplate.stream(query, Designer.class)) {
+                designers.forEach(designer -> loadedIndex.add(summaryOf(designer), termsOf(designer)));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringReload.forEach(change -> change.accept(loadedIndex));
+            changesDuringReload = null;
+            index = loadedIndex;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index on first use.
+     */
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the summary returned in search results for a designer.
+     *
+     * @param designer the designer to summarize
+     * @return the summary of the designer
+     */
+    private DesignerSummary summaryOf(Designer designer) {
+        return new DesignerSummary(designer.getId(), designer.getFirstname(), designer.getLastname(),
+                designer.getProfilePicture(), designer.getProfession(), designer.getSpecialties(),
+                designer.getCountryOfResidence(), designer.getProfilePictureRenditions());
+    }
+
+    /**
+     * Extracts the weighted terms of a designer, keeping the highest weight of each term.
+     *
+     * @param designer the designer to index
+     * @return the weight of each term of the designer
+     */
+    private Map<String, Integer> termsOf(Designer designer) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, designer.getBiography(), BIOGRAPHY_WEIGHT);
+        addTerms(terms, designer.getProfession(), PROFESSION_WEIGHT);
+        addTerms(terms, designer.getFirstname(), NAME_WEIGHT);
+        addTerms(terms, designer.getLastname(), NAME_WEIGHT);
+        return terms;
+    }
+
+    private void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    /**
+     * Splits a text into lowercase terms without accents.
+     *
+     * @param text the text to split, may be null
+     * @return the terms of at least {@link #MIN_TERM_LENGTH} characters
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Inverted index over designer numbers. Not thread-safe, guarded by the service lock.
+     */
+    private static final class Index {
+
+        /**
+         * Designers per term.
+         */
+        private final NavigableMap<String, Postings> postings = new TreeMap<>();
+
+        /**
+         * Designer number per ID.
+         */
+        private final Map<String, Integer> numbers = new HashMap<>();
+
+        /**
+         * Designer summary and indexed terms per number, null for free numbers.
+         */
+        private final List<DesignerSummary> summaries = new ArrayList<>();
+        private final List<Collection<String>> terms = new ArrayList<>();
+
+        /**
+         * Numbers of removed designers, reused by the next additions.
+         */
+        private final Deque<Integer> freeNumbers = new ArrayDeque<>();
+
+        void add(DesignerSummary summary, Map<String, Integer> designerTerms) {
+            int number;
+            if (freeNumbers.isEmpty()) {
+                number = summaries.size();
+                summaries.add(summary);
+                terms.add(designerTerms.keySet());
+            } else {
+                number = freeNumbers.pop();
+                summaries.set(number, summary);
+                terms.set(number, designerTerms.keySet());
+            }
+            numbers.put(summary.id(), number);
+            designerTerms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, k -> new Postings()).add(number, weight));
+        }
+
+        void remove(String designerId) {
+            Integer number = numbers.remove(designerId);
+            if (number == null) {
+                return;
+            }
+            for (String term : terms.get(number)) {
+                Postings designers = postings.get(term);
+                if (designers != null && designers.remove(number) && designers.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            summaries.set(number, null);
+            terms.set(number, null);
+            freeNumbers.push(number);
+        }
+
+        Matches search(List<String> searchedTerms, int offset, int limit) {
+            List<Collection<Map.Entry<String, Postings>>> matchingPerTerm = new ArrayList<>();
+            for (String term : searchedTerms) {
+                matchingPerTerm.add(postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet());
+            }
+            // Rarest terms first, so that later terms only score designers still matching
+            List<Integer> order = new ArrayList<>();
+            int[] sizes = new int[searchedTerms.size()];
+            for (int i = 0; i < searchedTerms.size(); i++) {
+                order.add(i);
+                for (Map.Entry<String, Postings> entry : matchingPerTerm.get(i)) {
+                    sizes[i] += entry.getValue().size;
+                }
+            }
+            order.sort(Comparator.comparingInt(i -> sizes[i]));
+
+            int capacity = summaries.size();
+            int[] scores = new int[capacity];
+            int[] termScores = new int[capacity];
+            int[] matchedTerms = new int[capacity];
+            int[] candidates = new int[0];
+            int candidateCount = 0;
+
+            for (int rank = 0; rank < order.size(); rank++) {
+                int termIndex = order.get(rank);
+                String term = searchedTerms.get(termIndex);
+                int[] touched = new int[Math.min(capacity, sizes[termIndex])];
+                int touchedCount = 0;
+                for (Map.Entry<String, Postings> entry : matchingPerTerm.get(termIndex)) {
+                    int factor = entry.getKey().equals(term) ? 2 : 1;
+                    Postings designers = entry.getValue();
+                    for (int p = 0; p < designers.size; p++) {
+                        int number = designers.numbers[p];
+                        if (matchedTerms[number] < rank) {
+                            continue;
+                        }
+                        int score = designers.weights[p] * factor;
+                        if (matchedTerms[number] == rank) {
+                            matchedTerms[number] = rank + 1;
+                            termScores[number] = score;
+                            touched[touchedCount++] = number;
+                        } else if (score > termScores[number]) {
+                            termScores[number] = score;
+                        }
+                    }
+                }
+                for (int t = 0; t < touchedCount; t++) {
+                    scores[touched[t]] += termScores[touched[t]];
+                }
+                candidates = touched;
+                candidateCount = touchedCount;
+                if (candidateCount == 0) {
+                    break;
+                }
+            }
+
+            Comparator<Integer> bestFirst = Comparator.<Integer>comparingInt(n -> scores[n]).reversed()
+                    .thenComparing(n -> summaries.get(n).id());
+            PriorityQueue<Integer> best = new PriorityQueue<>(bestFirst.reversed());
+            // Never more than the candidates, which also keeps a far page from overflowing
+            int kept = (int) Math.min((long) offset + limit, candidateCount);
+            for (int c = 0; c < candidateCount; c++) {
+                int number = candidates[c];
+                if (best.size() < kept) {
+                    best.add(number);
+                } else if (kept > 0 && bestFirst.compare(number, best.peek()) < 0) {
+                    best.poll();
+                    best.add(number);
+                }
+            }
+
+            Integer[] ranked = best.toArray(new Integer[0]);
+            Arrays.sort(ranked, bestFirst);
+            List<DesignerSummary> page = Arrays.stream(ranked)
+                    .skip(offset)
+                    .map(summaries::get)
+                    .toList();
+            return new Matches(page, candidateCount);
+        }
+    }
+
+    /**
+     * Growable list of designer numbers with the weight of a term for each of them.
+     */
+    private static final class Postings {
+
+        private int[] numbers = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void add(int number, int weight) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            numbers[size] = number;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * Removes a designer by moving the last posting in its place.
+         *
+         * @return true if the designer was found
+         */
+        boolean remove(int number) {
+            for (int p = 0; p < size; p++) {
+                if (numbers[p] == number) {
+                    size--;
+                    numbers[p] = numbers[size];
+                    weights[p] = weights[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
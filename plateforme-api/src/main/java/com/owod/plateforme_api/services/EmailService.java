@@ -4,17 +4,19 @@ import com.owod.plateforme_api.models.payload.ContactRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 /**
  * Service responsible for sending various application emails, such as password reset notifications and contact form messages.
+ * <p>
+ * Emails are queued in the outbox and sent by the {@link MailOutboxService} workers, so the request
+ * does not wait for the SMTP server.
  */
 @Service
 public class EmailService {
 
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private MailOutboxService mailOutboxService;
 
     @Value("${MAIL_USERNAME}")
     private String fromEmail;
@@ -23,7 +25,7 @@ public class EmailService {
     private String toEmail;
 
     /**
-     * Sends a password reset email to the specified recipient, including a link to reset the password.
+     * Queues a password reset email to the specified recipient, including a link to reset the password.
      *
      * @param toEmail   the recipient's email address
      * @param resetLink the password reset URL to include in the email body
@@ -45,11 +47,11 @@ public class EmailService {
                         "Cordialement,\n" +
                         "L'équipe OWOD"
         );
-        mailSender.send(message);
+        mailOutboxService.enqueue(message);
     }
 
     /**
-     * Sends a contact form email using the details provided in the ContactRequest.
+     * Queues a contact form email using the details provided in the ContactRequest.
      *
      * @param request the contact request payload containing sender email, subject, reason, and description
      */
@@ -63,6 +65,6 @@ public class EmailService {
                         "Raison: " + request.getReason() + "\n" +
                         "Description:\n" + request.getDescription()
         );
-        mailSender.send(message);
+        mailOutboxService.enqueue(message);
     }
 }
@@ -0,0 +1,313 @@
+package com.owod.plateforme_api.services;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Projections;
+import com.owod.plateforme_api.models.entities.Company;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.ImageReference;
+import com.owod.plateforme_api.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service deleting the stored images that no designer or company references any more.
+ * <p>
+ * {@link ImageReferenceService} deletes images as they are released, but objects are still left behind when
+ * a request fails between the upload and the save, or when an image was replaced before reference counting.
+ * This service sweeps them periodically, in two phases:
+ * <ul>
+ *     <li>mark: the image fields of the "designers" and "companies" collections are streamed with a projection,
+ *     and the name of each image is added to a {@link BloomFilter}, a few bytes per image whatever the number
+ *     of documents;</li>
+ *     <li>sweep: the storage is listed, and the objects whose name was not marked are deleted by batches,
+ *     together with their reference counts. Renditions live as long as their original.</li>
+ * </ul>
+ * A false positive of the filter only keeps an orphan until a later run, so no referenced image is ever deleted
+ * because of it. Images are matched by name, as the storage is content-addressed: an object is kept whatever the
+ * host of the URL referencing it.
+ * <p>
+ * Images uploaded while the collection runs are not referenced yet, so objects written less than
+ * {@code owod.images.gc.min-age-ms} ago are kept, as are images whose reference was counted since then.
+ * <p>
+ * Only objects named the way this application names them are candidates, as the storage may hold other files:
+ * content names (SHA-256 in hexadecimal), names prefixed by a UUID from previous versions, and their renditions.
+ * The periodic collection only runs when {@code owod.images.gc.enabled} is set, and with
+ * {@code owod.images.gc.dry-run} it counts the orphans without deleting them.
+ */
+@Service
+public class ImageGarbageCollectionService {
+
+    /**
+     * Result of a collection.
+     *
+     * @param scanned        the number of objects listed in the storage
+     * @param deleted        the number of orphaned objects deleted
+     * @param reclaimedBytes the total size of the deleted objects
+     */
+    public record Report(long scanned, long deleted, long reclaimedBytes) {
+    }
+
+    /**
+     * Images referenced by a document at most, used to size the filter: a picture or logo, a team photo, and works.
+     */
+    private static final int IMAGES_PER_DOCUMENT = 8;
+
+    /**
+     * Names, without extension, of the objects written by this application: a content name or its renditions,
+     * or a name prefixed by a UUID, as given by previous versions to the originals and then to their renditions.
+     */
+    private static final Pattern APP_IMAGE_NAME = Pattern.compile("[0-9a-f]{64}(_("
+            + Stream.of(ImageRenditionService.Rendition.values())
+                    .map(ImageRenditionService.Rendition::key)
+                    .collect(Collectors.joining("|"))
+            + "))?|[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}_.+");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Age under which a stored object is never deleted, covering the uploads of requests in progress.
+     */
+    @Value("${owod.images.gc.min-age-ms:86400000}")
+    private long minAgeMs;
+
+    @Value("${owod.images.gc.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Counts the orphans as "orphaned" instead of deleting them, to check a collection before enabling it.
+     */
+    @Value("${owod.images.gc.dry-run:false}")
+    private boolean dryRun;
+
+    @Value("${owod.images.gc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${owod.images.gc.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private Counter deletedCounter;
+    private Counter orphanedCounter;
+    private Counter keptCounter;
+    private Counter reclaimedCounter;
+
+    @PostConstruct
+    void initCounters() {
+        deletedCounter = outcomeCounter("deleted");
+        orphanedCounter = outcomeCounter("orphaned");
+        keptCounter = outcomeCounter("kept");
+        reclaimedCounter = Counter.builder("owod.images.gc.reclaimed")
+                .description("Size of the orphaned images deleted")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a collection periodically, every {@code owod.images.gc.interval-ms}, if {@code owod.images.gc.enabled}.
+     *
+     * @throws IOException if the storage cannot be listed or an orphan cannot be deleted
+     */
+    @Scheduled(initialDelayString = "${owod.images.gc.interval-ms:86400000}",
+            fixedDelayString = "${owod.images.gc.interval-ms:86400000}")
+    public void scheduledCollect() throws IOException {
+        if (enabled) {
+            collect();
+        }
+    }
+
+    /**
+     * Marks the images referenced by designers and companies, then deletes the other stored objects.
+     * If the references cannot be read, nothing is deleted. If the sweep fails, the batches already
+     * swept stay deleted and the others are left for the next run. In dry run, nothing is deleted and the
+     * report counts the objects that would have been.
+     *
+     * @return the number of objects listed and deleted, and the size reclaimed
+     * @throws IOException if the storage cannot be listed or an orphan cannot be deleted
+     */
+    public Report collect() throws IOException {
+        if (imageStorageService == null) {
+            return new Report(0, 0, 0);
+        }
+        Instant startedAt = Instant.now();
+        Instant writtenBefore = startedAt.minusMillis(minAgeMs);
+        BloomFilter marked = mark();
+
+        long scanned = 0;
+        long deleted = 0;
+        long reclaimedBytes = 0;
+        List<ImageStorageService.StoredObject> batch = new ArrayList<>();
+        try (Stream<ImageStorageService.StoredObject> objects = imageStorageService.listObjects()) {
+            Iterator<ImageStorageService.StoredObject> iterator = objects.iterator();
+            while (iterator.hasNext()) {
+                ImageStorageService.StoredObject object = iterator.next();
+                scanned++;
+                if (!APP_IMAGE_NAME.matcher(imageName(object.url())).matches()
+                        || object.lastModified() == null || !object.lastModified().isBefore(writtenBefore)
+                        || isMarked(marked, object.url())) {
+                    keptCounter.increment();
+                    continue;
+                }
+                batch.add(object);
+                if (batch.size() >= batchSize) {
+                    List<ImageStorageService.StoredObject> swept = sweep(batch, marked, writtenBefore);
+                    deleted += swept.size();
+                    reclaimedBytes += totalSize(swept);
+                    batch.clear();
+                }
+            }
+        }
+        List<ImageStorageService.StoredObject> swept = sweep(batch, marked, writtenBefore);
+        deleted += swept.size();
+        reclaimedBytes += totalSize(swept);
+        return new Report(scanned, deleted, reclaimedBytes);
+    }
+
+    /**
+     * Streams the image fields of every designer and company into a filter.
+     *
+     * @return the names of the referenced images
+     */
+    private BloomFilter mark() {
+        MongoCollection<Document> designers = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Designer.class));
+        MongoCollection<Document> companies = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Company.class));
+        long documents = designers.estimatedDocumentCount() + companies.estimatedDocumentCount();
+        BloomFilter marked = new BloomFilter(Math.max(10_000, documents * IMAGES_PER_DOCUMENT), falsePositiveRate);
+
+        markAll(marked, designers, "profilePicture", "majorWorks");
+        markAll(marked, companies, "logoUrl", "teamPhotoUrl", "worksUrl");
+        return marked;
+    }
+
+    private void markAll(BloomFilter marked, MongoCollection<Document> collection, String... fields) {
+        for (Document document : collection.find().projection(Projections.include(fields))) {
+            for (String field : fields) {
+                Object value = document.get(field);
+                if (value instanceof String url) {
+                    marked.add(imageName(url));
+                } else if (value instanceof List<?> urls) {
+                    for (Object element : urls) {
+                        if (element instanceof String url) {
+                            marked.add(imageName(url));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes a batch of orphans, after marking the images whose reference was counted since the mark began:
+     * they are being saved by a request, and the designer or company was not read with them.
+     *
+     * @param orphans       the objects found unmarked
+     * @param marked        the names of the referenced images, completed with the recent references
+     * @param writtenBefore the date from which references are recent
+     * @return the objects deleted
+     * @throws IOException if an object cannot be deleted
+     */
+    private List<ImageStorageService.StoredObject> sweep(List<ImageStorageService.StoredObject> orphans,
+                                                         BloomFilter marked, Instant writtenBefore) throws IOException {
+        if (orphans.isEmpty()) {
+            return List.of();
+        }
+        List<ImageReference> recent = mongoTemplate.find(
+                Query.query(Criteria.where("acquiredAt").gte(writtenBefore)), ImageReference.class);
+        recent.forEach(reference -> marked.add(imageName(reference.getUrl())));
+
+        List<ImageStorageService.StoredObject> swept = new ArrayList<>();
+        for (ImageStorageService.StoredObject orphan : orphans) {
+            if (isMarked(marked, orphan.url())) {
+                keptCounter.increment();
+            } else {
+                swept.add(orphan);
+            }
+        }
+        if (swept.isEmpty()) {
+            return swept;
+        }
+        if (dryRun) {
+            orphanedCounter.increment(swept.size());
+            return swept;
+        }
+        List<String> urls = swept.stream().map(ImageStorageService.StoredObject::url).toList();
+        imageStorageService.deleteAll(urls);
+        // Counts leaked by failed requests
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(urls)), ImageReference.class);
+
+        long size = totalSize(swept);
+        deletedCounter.increment(swept.size());
+        reclaimedCounter.increment(size);
+        return swept;
+    }
+
+    /**
+     * Tells whether an object is a marked image, or a rendition of one.
+     * A rendition is checked under its own name too, in case an original was named like a rendition.
+     *
+     * @param marked the names of the referenced images
+     * @param url    the URL of the stored object
+     * @return true if the object must be kept
+     */
+    private boolean isMarked(BloomFilter marked, String url) {
+        String name = imageName(url);
+        if (marked.mightContain(name)) {
+            return true;
+        }
+        for (ImageRenditionService.Rendition rendition : ImageRenditionService.Rendition.values()) {
+            String suffix = "_" + rendition.key();
+            if (name.endsWith(suffix) && marked.mightContain(name.substring(0, name.length() - suffix.length()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the name of an image from its URL, without the directories nor the extension,
+     * so that an original and the renditions built by {@link ImageStorageService#renditionUrl(String, String)}
+     * share the same prefix.
+     *
+     * @param url the URL or local path of the image
+     * @return the name of the image, e.g. "9f86d0...0f00a08" for ".../9f86d0...0f00a08.png"
+     */
+    static String imageName(String url) {
+        int slash = url.lastIndexOf('/');
+        int dot = url.lastIndexOf('.');
+        return url.substring(slash + 1, dot > slash ? dot : url.length());
+    }
+
+    private long totalSize(List<ImageStorageService.StoredObject> objects) {
+        return objects.stream().mapToLong(ImageStorageService.StoredObject::size).sum();
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("owod.images.gc")
+                .description("Stored objects examined by the image garbage collection, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,110 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.entities.ImageReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service counting the references to stored images, in the "image_references" collection, and deleting
+ * an image with its renditions once nothing references it any more.
+ * <p>
+ * Images are content-addressed, so the same object may back the pictures of several designers or companies.
+ * A reference is counted for each upload by {@link ImageRenditionService}, and released by the code that
+ * removes or replaces the image. Images stored before reference counting have no count: they were stored
+ * under a unique name, so their only reference is the one being released and they are deleted at once.
+ */
+@Service
+public class ImageReferenceService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    private ImageStorageService imageStorageService;
+
+    /**
+     * Counts one more reference to each image, and records when, so that the garbage collection
+     * spares the images being referenced while it runs.
+     *
+     * @param urls the URLs of the images, null values being ignored
+     */
+    public void acquire(Collection<String> urls) {
+        for (String url : urls) {
+            if (url != null) {
+                mongoTemplate.upsert(byUrl(url), new Update().inc("count", 1).set("acquiredAt", Instant.now()),
+                        ImageReference.class);
+            }
+        }
+    }
+
+    /**
+     * Counts one reference less to each image, and deletes from the storage the images,
+     * with their renditions, that are no longer referenced.
+     * Storage errors are ignored: the images are then left orphaned.
+     *
+     * @param urls the URLs of the images, null values being ignored
+     */
+    public void release(Collection<String> urls) {
+        List<String> unreferenced = new ArrayList<>();
+        for (String url : urls) {
+            if (url == null) {
+                continue;
+            }
+            ImageReference reference = mongoTemplate.findAndModify(byUrl(url), new Update().inc("count", -1),
+                    FindAndModifyOptions.options().returnNew(true), ImageReference.class);
+            if (reference != null && reference.getCount() > 0) {
+                continue;
+            }
+            // Only the caller that removes the count deletes the image, and not if it was acquired again meanwhile
+            if (reference == null || mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where("_id").is(url).and("count").lte(0)), ImageReference.class) != null) {
+                unreferenced.add(url);
+                unreferenced.addAll(ImageRenditionService.renditionUrls(url).values());
+            }
+        }
+        if (!unreferenced.isEmpty() && imageStorageService != null) {
+            imageStorageService.deleteQuietly(unreferenced);
+        }
+    }
+
+    /**
+     * Deletes the objects created by a failed batch upload, except those counted meanwhile by a concurrent
+     * request that found them already stored. Such a request checks the image again once counted, see
+     * {@link ImageRenditionService#uploadAll(List)}, so an object deleted before its count is uploaded anew.
+     * Storage errors are ignored: the objects are then left orphaned.
+     *
+     * @param urls the URLs of the objects created by the batch
+     */
+    public void discard(Collection<String> urls) {
+        List<String> unreferenced = urls.stream()
+                .filter(url -> !mongoTemplate.exists(byUrl(url), ImageReference.class))
+                .toList();
+        if (!unreferenced.isEmpty() && imageStorageService != null) {
+            imageStorageService.deleteQuietly(unreferenced);
+        }
+    }
+
+    /**
+     * Releases the references of the images of a removed or updated document.
+     *
+     * @param urls the URLs of the images no longer referenced by the document, null values being ignored
+     */
+    public void release(String... urls) {
+        release(Arrays.asList(urls));
+    }
+
+    private Query byUrl(String url) {
+        return Query.query(Criteria.where("_id").is(url));
+    }
+}
@@ -0,0 +1,369 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.entities.ImageRenditions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service uploading images together with resized copies, so that lists and grids download small files
+ * instead of the originals.
+ * <p>
+ * After the original is stored, it is decoded once and scaled down to each width of {@link Rendition}.
+ * Each copy is encoded as JPEG and stored next to the original through {@link ImageStorageService}. Images are
+ * never scaled up: a copy wider than the original keeps the original size.
+ * <p>
+ * Decoding and scaling use the CPU and a large amount of memory, so they run on a dedicated, bounded pool
+ * of threads. Large images are subsampled while decoded, so that no more pixels than the widest copy needs
+ * are held in memory, and images of more than {@code owod.images.max-pixels} are not decoded at all.
+ * When the pool is saturated, or the file cannot be decoded, the image is kept without renditions and
+ * clients fall back to the original.
+ * <p>
+ * As the storage is content-addressed, a picture uploaded again already has its renditions: they are then
+ * reused without decoding anything. Each uploaded image counts as one reference in
+ * {@link ImageReferenceService}, to be released by the caller once the image is no longer used.
+ */
+@Service
+public class ImageRenditionService {
+
+    /**
+     * Resized copies generated for each image, from the widest to the narrowest.
+     */
+    enum Rendition {
+        FULL(1280),
+        CARD(480),
+        THUMB(160);
+
+        private final int width;
+
+        Rendition(int width) {
+            this.width = width;
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Height of the decoded image at most, as a multiple of the widest rendition: very tall images are
+     * subsampled by their height too, and their renditions are then narrower than the rendition widths.
+     */
+    private static final int MAX_HEIGHT_RATIO = 4;
+
+    @Autowired(required = false)
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private ImageReferenceService imageReferenceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of threads generating renditions, 0 for half of the available processors.
+     */
+    @Value("${owod.images.threads:0}")
+    private int threads;
+
+    @Value("${owod.images.queue-size:16}")
+    private int queueSize;
+
+    @Value("${owod.images.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    /**
+     * Size of the images decoded at most, as read from their header, so that a small file declaring huge
+     * dimensions does not take the CPU for long.
+     */
+    @Value("${owod.images.max-pixels:50000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter createdCounter;
+    private Counter reusedCounter;
+    private Counter failedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void initExecutor() {
+        // Decodes from memory instead of temporary files
+        ImageIO.setUseCache(false);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-renditions-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        createdCounter = outcomeCounter("created");
+        reusedCounter = outcomeCounter("reused");
+        failedCounter = outcomeCounter("failed");
+        rejectedCounter = outcomeCounter("rejected");
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Uploads an image and its renditions, and counts one reference to the image.
+     *
+     * @param file the image to upload
+     * @return the URL of the original and of its renditions
+     * @throws IOException if the original cannot be uploaded
+     */
+    public ImageRenditions upload(MultipartFile file) throws IOException {
+        return uploadAll(List.of(file)).get(0);
+    }
+
+    /**
+     * Uploads several images as a batch with {@link ImageStorageService#uploadImages(List)},
+     * then generates their renditions concurrently and counts one reference to each image.
+     * <p>
+     * An image found already stored may be deleted by a concurrent release of its last reference before it is
+     * counted here. Once counted, it can no longer be released by others, so each image is checked again and
+     * uploaded anew if it was deleted meanwhile.
+     *
+     * @param files the images to upload
+     * @return the URL of each original and of its renditions, in the order of the files
+     * @throws IllegalArgumentException if a file is empty, before any upload
+     * @throws IOException if an original cannot be uploaded, in which case none is kept
+     */
+    public List<ImageRenditions> uploadAll(List<MultipartFile> files) throws IOException {
+        List<String> urls;
+        try {
+            urls = imageStorageService.uploadImages(files);
+        } catch (ImageStorageService.BatchUploadException e) {
+            imageReferenceService.discard(e.getCreated());
+            throw e;
+        }
+        imageReferenceService.acquire(urls);
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                if (!imageStorageService.exists(urls.get(i))) {
+                    imageStorageService.uploadImage(files.get(i));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            imageReferenceService.release(urls);
+            throw e;
+        }
+
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            String url = urls.get(i);
+            try {
+                futures.add(executor.submit(() -> createRenditions(url, file)));
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                futures.add(null);
+            }
+        }
+
+        List<ImageRenditions> renditions = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            renditions.add(new ImageRenditions(urls.get(i), await(futures.get(i))));
+        }
+        return renditions;
+    }
+
+    /**
+     * Waits for the renditions of an image.
+     *
+     * @param future the generation of the renditions, or null if it was refused
+     * @return the URLs of the renditions by name, empty if they could not be generated
+     */
+    private Map<String, String> await(Future<Map<String, String>> future) {
+        if (future == null) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            failedCounter.increment();
+            return new LinkedHashMap<>();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Builds the URLs of every rendition of an image, whether they exist or not.
+     *
+     * @param originalUrl the URL of the original image
+     * @return the URLs of the renditions by name
+     */
+    static Map<String, String> renditionUrls(String originalUrl) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (Rendition rendition : Rendition.values()) {
+            urls.put(rendition.key(), ImageStorageService.renditionUrl(originalUrl, rendition.key()));
+        }
+        return urls;
+    }
+
+    /**
+     * Decodes an image, then scales and stores each rendition, each one from the previous, wider one.
+     * If a rendition cannot be stored, those already stored are deleted. Renditions already stored for
+     * the same content are reused: the narrowest one is written last, so its presence means all exist.
+     *
+     * @param originalUrl the URL of the stored original
+     * @param file        the uploaded image
+     * @return the URLs of the renditions by name
+     * @throws IOException if the image cannot be decoded or a rendition cannot be stored
+     */
+    Map<String, String> createRenditions(String originalUrl, MultipartFile file) throws IOException {
+        Map<String, String> existing = renditionUrls(originalUrl);
+        if (imageStorageService.exists(existing.get(Rendition.THUMB.key()))) {
+            reusedCounter.increment();
+            return existing;
+        }
+
+        BufferedImage image;
+        try (InputStream in = file.getInputStream()) {
+            image = decode(in, Rendition.FULL.width);
+        }
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        try {
+            for (Rendition rendition : Rendition.values()) {
+                image = scaleToWidth(image, rendition.width);
+                urls.put(rendition.key(), imageStorageService.storeRendition(originalUrl, rendition.key(), encodeJpeg(image)));
+            }
+        } catch (IOException | RuntimeException e) {
+            imageStorageService.deleteQuietly(new ArrayList<>(urls.values()));
+            throw e;
+        }
+        createdCounter.increment();
+        return urls;
+    }
+
+    /**
+     * Decodes an image, skipping rows and columns of large images so that it stays at least the given width,
+     * and at most {@link #MAX_HEIGHT_RATIO} times as high.
+     *
+     * @param in       the encoded image
+     * @param minWidth the width under which the image is not subsampled
+     * @return the decoded image
+     * @throws IOException if the format is not supported, the image is corrupted or larger than
+     *                     {@code owod.images.max-pixels}
+     */
+    private BufferedImage decode(InputStream in, int minWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                int step = Math.max(1,
+                        Math.max(width / minWidth, Math.ceilDiv(height, minWidth * MAX_HEIGHT_RATIO)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales an image down to a width, keeping its ratio, on an opaque white background
+     * as JPEG has no transparency.
+     *
+     * @param image the image to scale
+     * @param width the target width, ignored if the image is narrower
+     * @return the scaled image
+     */
+    private BufferedImage scaleToWidth(BufferedImage image, int width) {
+        int targetWidth = Math.min(width, image.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) image.getHeight() * targetWidth / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Encodes an image as JPEG with the configured quality.
+     *
+     * @param image the opaque image to encode
+     * @return the JPEG content
+     * @throws IOException if the image cannot be encoded
+     */
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("owod.images.renditions")
+                .description("Images processed into renditions, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
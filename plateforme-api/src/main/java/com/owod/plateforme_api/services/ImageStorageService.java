@@ -2,13 +2,74 @@ package com.owod.plateforme_api.services;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 /**
  * Service interface for storing images. Implementations may upload images to cloud storage or save them locally.
+ * <p>
+ * Implementations are content-addressed: an image is stored under the SHA-256 of its content, see
+ * {@link #contentName(MultipartFile)}, so uploading the same picture again reuses the stored object.
+ * As an object may then be shared, it must only be deleted once nothing references it,
+ * see {@link ImageReferenceService}. Objects left behind anyway are swept by {@link ImageGarbageCollectionService}.
  */
 public interface ImageStorageService {
 
+    /**
+     * Result of storing a file.
+     *
+     * @param url     the public URL or local path of the image
+     * @param created true if the object was written by this call, false if the same content was already stored
+     */
+    record StoredImage(String url, boolean created) {
+    }
+
+    /**
+     * Object found while listing the storage.
+     *
+     * @param url          the public URL or local path of the object, accepted by {@link #delete(String)}
+     * @param size         the size of the object, in bytes
+     * @param lastModified when the object was last written
+     */
+    record StoredObject(String url, long size, Instant lastModified) {
+    }
+
+    /**
+     * Failure of a batch upload, telling which objects the batch created before it failed. They are left
+     * in place, as a concurrent request may have found one of them already stored and counted a reference
+     * to it: {@link ImageReferenceService#discard(java.util.Collection)} deletes those nobody references.
+     */
+    class BatchUploadException extends IOException {
+
+        private final List<String> created;
+
+        public BatchUploadException(List<String> created, Throwable cause) {
+            super("Error uploading images: " + cause.getMessage(), cause);
+            this.created = List.copyOf(created);
+        }
+
+        /**
+         * @return the URLs of the objects created by the failed batch
+         */
+        public List<String> getCreated() {
+            return created;
+        }
+    }
+
     /**
      * Uploads the given multipart file to a storage location and returns its accessible URL or path.
      *
@@ -17,4 +78,196 @@ public interface ImageStorageService {
      * @throws IOException if an error occurs during file upload or conversion
      */
     String uploadImage(MultipartFile file) throws IOException;
+
+    /**
+     * Uploads the given multipart file, telling whether it was already stored.
+     * This default implementation always reports the object as created.
+     *
+     * @param file the multipart file to be uploaded
+     * @return the URL of the image and whether this call created it
+     * @throws IOException if an error occurs during file upload
+     */
+    default StoredImage store(MultipartFile file) throws IOException {
+        return new StoredImage(uploadImage(file), true);
+    }
+
+    /**
+     * Uploads several files as a whole: either every file is kept, or the caller discards the batch.
+     * <p>
+     * Every file is checked before anything is uploaded. If an upload fails, the objects created by the batch
+     * are reported by a {@link BatchUploadException} rather than deleted, as they may already be shared.
+     * This default implementation uploads one file after the other; implementations backed by a remote
+     * storage upload them concurrently.
+     *
+     * @param files the multipart files to be uploaded
+     * @return the public URLs or local paths of the uploaded images, in the order of the files
+     * @throws IllegalArgumentException if a file is empty, before any upload
+     * @throws BatchUploadException if an upload fails
+     */
+    default List<String> uploadImages(List<MultipartFile> files) throws IOException {
+        validateImages(files);
+        List<String> urls = new ArrayList<>();
+        List<String> created = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                StoredImage stored = store(file);
+                urls.add(stored.url());
+                if (stored.created()) {
+                    created.add(stored.url());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new BatchUploadException(created, e);
+        }
+        return urls;
+    }
+
+    /**
+     * Tells whether an object is stored at the given URL.
+     * This default implementation knows of no object.
+     *
+     * @param url the public URL or local path of the object
+     * @return true if the object exists
+     * @throws IOException if the storage cannot be queried
+     */
+    default boolean exists(String url) throws IOException {
+        return false;
+    }
+
+    /**
+     * Stores a resized copy of an uploaded image next to the original, at {@link #renditionUrl(String, String)}.
+     *
+     * @param originalUrl the URL of the original image, as returned by {@link #uploadImage(MultipartFile)}
+     * @param name        the name of the rendition, e.g. "thumb"
+     * @param jpeg        the content of the rendition, encoded as JPEG
+     * @return the public URL or local path of the rendition
+     * @throws IOException if the rendition cannot be stored
+     */
+    String storeRendition(String originalUrl, String name, byte[] jpeg) throws IOException;
+
+    /**
+     * Builds the URL of a rendition from the URL of its original: the extension of the original is replaced
+     * by the name of the rendition, so that "abc_logo.png" gives "abc_logo_thumb.jpg".
+     *
+     * @param originalUrl the URL of the original image
+     * @param name        the name of the rendition
+     * @return the URL of the rendition
+     */
+    static String renditionUrl(String originalUrl, String name) {
+        int slash = originalUrl.lastIndexOf('/');
+        int dot = originalUrl.lastIndexOf('.');
+        String base = dot > slash ? originalUrl.substring(0, dot) : originalUrl;
+        return base + "_" + name + ".jpg";
+    }
+
+    /**
+     * Deletes an image previously returned by {@link #uploadImage(MultipartFile)}.
+     * URLs that do not belong to this storage are ignored.
+     *
+     * @param url the public URL or local path of the image
+     * @throws IOException if the image cannot be deleted
+     */
+    void delete(String url) throws IOException;
+
+    /**
+     * Deletes several objects. This default implementation deletes one object after the other;
+     * implementations backed by a remote storage delete them with as few requests as possible.
+     *
+     * @param urls the public URLs or local paths of the objects
+     * @throws IOException if an object cannot be deleted
+     */
+    default void deleteAll(List<String> urls) throws IOException {
+        for (String url : urls) {
+            delete(url);
+        }
+    }
+
+    /**
+     * Lists every object of the storage, originals and renditions alike. The objects are read lazily,
+     * so the stream must be closed once consumed. This default implementation lists nothing.
+     *
+     * @return the stored objects, in no particular order
+     * @throws IOException if the storage cannot be listed
+     */
+    default Stream<StoredObject> listObjects() throws IOException {
+        return Stream.empty();
+    }
+
+    /**
+     * Names a file after its content: the hexadecimal SHA-256 of the bytes, computed while streaming them,
+     * followed by the usual extension of the image format read from its header. The same picture sent as
+     * "photo.jpg" and "photo.jpeg" is then one object, with one reference count for the renditions named
+     * after it by {@link #renditionUrl(String, String)}. Files that are not readable images, and thus have
+     * no renditions, keep the lower-cased extension of their original name.
+     *
+     * @param file the uploaded file
+     * @return the content-addressed name of the file, e.g. "9f86d0...0f00a08.png"
+     * @throws IOException if the file cannot be read
+     */
+    static String contentName(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String extension = imageExtension(file);
+        if (extension == null) {
+            String original = file.getOriginalFilename();
+            int dot = original == null ? -1 : original.lastIndexOf('.');
+            extension = dot < 0 ? "" : original.substring(dot + 1).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        }
+        return HexFormat.of().formatHex(digest.digest()) + (extension.isEmpty() ? "" : "." + extension);
+    }
+
+    /**
+     * Finds the usual extension of an image from its header, with the readers that also decode it
+     * for the renditions.
+     *
+     * @param file the uploaded file
+     * @return the extension, e.g. "jpg" for a JPEG whatever its name, or null if the format is not readable
+     * @throws IOException if the file cannot be read
+     */
+    private static String imageExtension(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream(); ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            String[] suffixes = readers.next().getOriginatingProvider().getFileSuffixes();
+            return suffixes == null || suffixes.length == 0 ? null : suffixes[0].toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Checks the files of a batch upload before anything is sent.
+     *
+     * @param files the multipart files to be uploaded
+     * @throws IllegalArgumentException if a file is empty
+     */
+    static void validateImages(List<MultipartFile> files) {
+        for (MultipartFile file : files) {
+            if (file == null || file.isEmpty()) {
+                throw new IllegalArgumentException("Empty file: " + (file == null ? null : file.getOriginalFilename()));
+            }
+        }
+    }
+
+    /**
+     * Deletes the images of a failed batch upload, ignoring errors so that the cause of the failure is kept.
+     *
+     * @param urls the URLs of the images already uploaded
+     */
+    default void deleteQuietly(List<String> urls) {
+        for (String url : urls) {
+            try {
+                delete(url);
+            } catch (IOException | RuntimeException ignored) {
+                // The image stays orphaned, the upload failure is reported instead
+            }
+        }
+    }
 }
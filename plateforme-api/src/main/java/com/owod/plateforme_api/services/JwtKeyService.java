@@ -0,0 +1,297 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.entities.JwtKey;
+import com.owod.plateforme_api.repositories.JwtKeyRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service managing the keys used to sign and verify JWTs.
+ * <p>
+ * The configured secret is the initial key, with ID {@link #DEFAULT_KEY_ID}. Each rotation stores a new
+ * random key in the "jwt_keys" collection, which then signs every new token. Previous keys keep verifying
+ * the tokens they signed until those have expired, so a rotation never logs anyone out. Keys are reloaded
+ * periodically, so every instance picks up a rotation without a restart.
+ * <p>
+ * Keys and the parser are built once per reload into an immutable {@link KeyRing}, shared by all requests.
+ * <p>
+ * Stored secrets are encrypted with AES-GCM under a key-encryption key derived from
+ * {@code owod.jwt.key-encryption-key} (the {@code JWT_KEK} variable, or the configured secret when unset),
+ * so that reading the database is not enough to forge tokens. Secrets stored in clear by previous versions
+ * are still read, and encrypted once at startup by {@code JwtKeyEncryptionMigration}.
+ */
+@Service
+public class JwtKeyService {
+
+    /**
+     * ID of the configured key, also used for tokens issued without "kid" header.
+     */
+    public static final String DEFAULT_KEY_ID = "default";
+
+    private static final String HMAC_SHA512 = "HmacSHA512";
+
+    /**
+     * Size of generated keys, as required by HS512.
+     */
+    private static final int KEY_BYTES = 64;
+
+    /**
+     * Prefix of the encrypted secrets, telling them apart from the Base64 secrets stored by previous versions.
+     */
+    static final String ENCRYPTED_PREFIX = "aes-gcm:";
+
+    private static final int IV_BYTES = 12;
+
+    private static final int TAG_BITS = 128;
+
+    /**
+     * Immutable set of active keys.
+     *
+     * @param signingKeyId       the ID of the key signing new tokens
+     * @param signingKey         the key signing new tokens
+     * @param verificationKeyIds the IDs of the keys accepted for verification
+     * @param parser             the parser verifying tokens with any active key, chosen by the "kid" header
+     */
+    public record KeyRing(String signingKeyId, SecretKey signingKey, Set<String> verificationKeyIds, JwtParser parser) {
+    }
+
+    @Autowired
+    private JwtKeyRepository jwtKeyRepository;
+
+    @Value("${owod.plateforme-api.jwtSecret}")
+    private String jwtSecret;
+
+    @Value("${owod.plateforme-api.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    @Value("${owod.jwt.key-encryption-key}")
+    private String keyEncryptionSecret;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile KeyRing keyRing;
+
+    /**
+     * Returns the active keys, loading them if a token is handled before the application is ready.
+     *
+     * @return the current key ring
+     */
+    public KeyRing current() {
+        KeyRing current = keyRing;
+        if (current == null) {
+            reload();
+            current = keyRing;
+        }
+        return current;
+    }
+
+    /**
+     * Creates a new random signing key. Tokens signed with the previous keys remain valid until they expire.
+     * Keys whose tokens have all expired are deleted.
+     *
+     * @return the ID of the new signing key
+     */
+    public synchronized String rotate() {
+        byte[] secret = new byte[KEY_BYTES];
+        random.nextBytes(secret);
+
+        JwtKey key = new JwtKey();
+        key.setId(UUID.randomUUID().toString());
+        key.setSecret(encrypt(key.getId(), secret));
+        key.setCreatedAt(Instant.now());
+        jwtKeyRepository.save(key);
+
+        List<JwtKey> keys = jwtKeyRepository.findAllByOrderByCreatedAtAsc();
+        for (int i = 0; i < keys.size() - 1; i++) {
+            if (isRetired(keys.get(i + 1))) {
+                jwtKeyRepository.delete(keys.get(i));
+            }
+        }
+        reload();
+        return key.getId();
+    }
+
+    /**
+     * Rebuilds the key ring from the configured secret and the stored keys.
+     * Runs at startup, then periodically to pick up rotations made by other instances. Only reads the stored
+     * keys. The current ring is kept as is when the active keys did not change, so a new ring always means
+     * that keys were added or retired.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${owod.jwt.keys-reload-ms:60000}",
+            fixedDelayString = "${owod.jwt.keys-reload-ms:60000}")
+    public synchronized void reload() {
+        List<JwtKey> stored = jwtKeyRepository.findAllByOrderByCreatedAtAsc();
+
+        List<String> ids = new ArrayList<>();
+        List<SecretKey> secrets = new ArrayList<>();
+        List<Instant> createdAt = new ArrayList<>();
+        ids.add(DEFAULT_KEY_ID);
+        secrets.add(toKey(jwtSecret));
+        createdAt.add(Instant.EPOCH);
+        for (JwtKey key : stored) {
+            ids.add(key.getId());
+            if (key.getSecret().startsWith(ENCRYPTED_PREFIX)) {
+                secrets.add(new SecretKeySpec(decrypt(key.getId(), key.getSecret()), HMAC_SHA512));
+            } else {
+                secrets.add(toKey(key.getSecret()));
+            }
+            createdAt.add(key.getCreatedAt());
+        }
+
+        // A key verifies tokens until every token it signed has expired, i.e. until its successor is old enough
+        Map<String, Key> verificationKeys = new HashMap<>();
+        int last = ids.size() - 1;
+        for (int i = 0; i < last; i++) {
+            if (createdAt.get(i + 1).plusMillis(jwtExpirationMs).isAfter(Instant.now())) {
+                verificationKeys.put(ids.get(i), secrets.get(i));
+            }
+        }
+        verificationKeys.put(ids.get(last), secrets.get(last));
+
+        KeyRing current = keyRing;
+        if (current != null && current.signingKeyId().equals(ids.get(last))
+                && current.verificationKeyIds().equals(verificationKeys.keySet())) {
+            return;
+        }
+
+        JwtParser parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String keyId = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KEY_ID;
+                        Key key = verificationKeys.get(keyId);
+                        if (key == null) {
+                            throw new SignatureException("Unknown or retired signing key: " + keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        keyRing = new KeyRing(ids.get(last), secrets.get(last), Set.copyOf(verificationKeys.keySet()), parser);
+    }
+
+    /**
+     * Encrypts the secrets stored in clear by previous versions.
+     *
+     * @return the number of encrypted secrets
+     */
+    public synchronized int encryptLegacySecrets() {
+        int encrypted = 0;
+        for (JwtKey key : jwtKeyRepository.findAllByOrderByCreatedAtAsc()) {
+            if (!key.getSecret().startsWith(ENCRYPTED_PREFIX)) {
+                key.setSecret(encrypt(key.getId(), Decoders.BASE64.decode(key.getSecret())));
+                jwtKeyRepository.save(key);
+                encrypted++;
+            }
+        }
+        return encrypted;
+    }
+
+    /**
+     * Checks whether the tokens signed before a key was created have all expired.
+     *
+     * @param successor the key that replaced the key to check
+     * @return true if the replaced key no longer verifies any valid token
+     */
+    private boolean isRetired(JwtKey successor) {
+        return !successor.getCreatedAt().plusMillis(jwtExpirationMs).isAfter(Instant.now());
+    }
+
+    /**
+     * Encrypts a generated secret for storage. The key ID is authenticated with it, so a secret copied
+     * to another key document does not decrypt.
+     *
+     * @param keyId  the ID of the key
+     * @param secret the raw HMAC secret
+     * @return the prefixed Base64 encoding of the IV followed by the ciphertext
+     */
+    private String encrypt(String keyId, byte[] secret) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey(), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(keyId.getBytes(StandardCharsets.UTF_8));
+            byte[] encrypted = cipher.doFinal(secret);
+            return ENCRYPTED_PREFIX + Encoders.BASE64.encode(
+                    ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt JWT key " + keyId, e);
+        }
+    }
+
+    /**
+     * Decrypts a stored secret.
+     *
+     * @param keyId  the ID of the key
+     * @param stored the value written by {@link #encrypt(String, byte[])}
+     * @return the raw HMAC secret
+     * @throws IllegalStateException if the secret was encrypted with another key-encryption key or altered
+     */
+    private byte[] decrypt(String keyId, String stored) {
+        byte[] data = Decoders.BASE64.decode(stored.substring(ENCRYPTED_PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey(), new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+            cipher.updateAAD(keyId.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(
+                    "Cannot decrypt JWT key " + keyId + ", check owod.jwt.key-encryption-key", e);
+        }
+    }
+
+    /**
+     * Derives the AES-256 key-encryption key from the configured secret, with a label so that the derived key
+     * differs from any other use of the same secret.
+     *
+     * @return the key-encryption key
+     * @throws GeneralSecurityException if HMAC-SHA256 is not available
+     */
+    private SecretKey keyEncryptionKey() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(keyEncryptionSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return new SecretKeySpec(mac.doFinal("owod-jwt-key-encryption".getBytes(StandardCharsets.UTF_8)), "AES");
+    }
+
+    /**
+     * Builds an HMAC key from a Base64-encoded secret, as the secret was read by previous versions.
+     *
+     * @param base64Secret the Base64-encoded secret
+     * @return the HS512 key
+     */
+    private static SecretKey toKey(String base64Secret) {
+        return new SecretKeySpec(Decoders.BASE64.decode(base64Secret), HMAC_SHA512);
+    }
+}
@@ -5,15 +5,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.Optional;
-import java.util.UUID;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
 
 /**
  * Service implementation that stores images locally on the filesystem.
@@ -35,28 +34,154 @@ public class LocalImageStorageService implements ImageStorageService {
      */
     @Override
     public String uploadImage(MultipartFile file) throws IOException {
+        return store(file).url();
+    }
+
+    /**
+     * Saves the given multipart file under the SHA-256 of its content, unless a file with the same
+     * content is already saved. The file is written under a temporary name, then renamed, so that
+     * a partially written file is never served.
+     *
+     * @param file the multipart file to upload
+     * @return the local URL of the file and whether it was written
+     * @throws IOException if an error occurs during file transfer
+     */
+    @Override
+    public StoredImage store(MultipartFile file) throws IOException {
 
         // Chemin vers resources/static/uploads (portable)
-        Path uploadPath = Paths.get(System.getProperty("user.home"), "owod-uploads");
+        Path uploadPath = uploadPath();
         Files.createDirectories(uploadPath);
 
-        // Nom de fichier sûr + unique
-        String original = Optional.ofNullable(file.getOriginalFilename()).orElse("file");
-        String clean = original.replaceAll("[^A-Za-z0-9._-]", "_");
-        String filename = UUID.randomUUID() + "_" + clean;
-
-        // Écriture réelle
+        // Nom de fichier dérivé du contenu : un même fichier renvoyé réutilise l'existant
+        String filename = ImageStorageService.contentName(file);
         Path target = uploadPath.resolve(filename);
-        try (InputStream in = file.getInputStream()) {
-            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
-        }
 
         // Comme on écrit sous resources/static, Spring sert déjà /uploads/**
         // L’URL publique est donc:
-        return ServletUriComponentsBuilder
+        String url = ServletUriComponentsBuilder
                 .fromCurrentContextPath() // -> http://localhost:8080
                 .path("/uploads/")
                 .path(filename)
                 .toUriString();
+        if (Files.exists(target)) {
+            return new StoredImage(url, false);
+        }
+
+        // Écriture réelle
+        Path temp = Files.createTempFile(uploadPath, "upload", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new StoredImage(url, true);
+    }
+
+    /**
+     * Tells whether a file is saved at the given local URL.
+     *
+     * @param url the local URL of the file
+     * @return true if the file exists
+     */
+    @Override
+    public boolean exists(String url) {
+        Path target = localPath(url);
+        return target != null && Files.exists(target);
+    }
+
+    /**
+     * Writes a rendition next to its original in the local upload directory.
+     *
+     * @param originalUrl the local URL of the original image
+     * @param name        the name of the rendition
+     * @param jpeg        the content of the rendition
+     * @return the local URL of the rendition
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public String storeRendition(String originalUrl, String name, byte[] jpeg) throws IOException {
+        String url = ImageStorageService.renditionUrl(originalUrl, name);
+        Path target = localPath(url);
+        if (target == null) {
+            throw new IOException("Not a local upload: " + originalUrl);
+        }
+        Files.write(target, jpeg);
+        return url;
+    }
+
+    /**
+     * Deletes a file previously stored by {@link #uploadImage(MultipartFile)}.
+     * URLs that do not point to the local uploads are ignored.
+     *
+     * @param url the local URL of the file
+     * @throws IOException if the file cannot be deleted
+     */
+    @Override
+    public void delete(String url) throws IOException {
+        Path target = localPath(url);
+        if (target != null) {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Lists the files of the upload directory, leaving out the temporary files of uploads in progress.
+     * Files are listed by their path "/uploads/name", which {@link #delete(String)} accepts, as no request
+     * tells the host of the local URLs.
+     *
+     * @return the saved files, empty if nothing was uploaded yet
+     * @throws IOException if the directory cannot be listed
+     */
+    @Override
+    public Stream<StoredObject> listObjects() throws IOException {
+        Path uploadPath = uploadPath();
+        if (!Files.isDirectory(uploadPath)) {
+            return Stream.empty();
+        }
+        return Files.list(uploadPath)
+                .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                .map(this::storedObject)
+                .filter(object -> object != null);
+    }
+
+    /**
+     * Reads the size and date of a saved file.
+     *
+     * @param path the file in the upload directory
+     * @return the file as a stored object, or null if it is not a regular file or was deleted meanwhile
+     */
+    private StoredObject storedObject(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            return new StoredObject("/uploads/" + path.getFileName(), attributes.size(),
+                    attributes.lastModifiedTime().toInstant());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves a local URL to its file in the upload directory.
+     *
+     * @param url the local URL of a file
+     * @return the path of the file, or null if the URL does not point to the upload directory
+     */
+    private Path localPath(String url) {
+        int index = url == null ? -1 : url.lastIndexOf("/uploads/");
+        if (index < 0) {
+            return null;
+        }
+        Path uploadPath = uploadPath();
+        Path target = uploadPath.resolve(url.substring(index + "/uploads/".length())).normalize();
+        return target.startsWith(uploadPath) ? target : null;
+    }
+
+    private Path uploadPath() {
+        return Paths.get(System.getProperty("user.home"), "owod-uploads");
     }
 }
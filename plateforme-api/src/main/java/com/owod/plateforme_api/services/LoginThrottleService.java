@@ -0,0 +1,130 @@
+package com.owod.plateforme_api.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service limiting failed login attempts per email and per client IP, held in memory.
+ * <p>
+ * Failures are counted over a fixed window starting at the first failure. Once a limit is reached,
+ * logins for that email or from that IP are refused until the window ends, before any password is hashed.
+ * A successful login clears the count of its email.
+ */
+@Service
+public class LoginThrottleService {
+
+    /**
+     * Failures counted for a key since the start of its window.
+     */
+    private record Attempts(int failures, long windowStart) {
+    }
+
+    @Value("${owod.login.max-failures-per-email:5}")
+    private int maxFailuresPerEmail;
+
+    @Value("${owod.login.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${owod.login.window-ms:900000}")
+    private long windowMs;
+
+    @Value("${owod.login.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+
+    private Cache<String, Attempts> emailAttempts;
+
+    private Cache<String, Attempts> ipAttempts;
+
+    @PostConstruct
+    void initCaches() {
+        emailAttempts = newCache();
+        ipAttempts = newCache();
+    }
+
+    /**
+     * Checks whether a login may be attempted.
+     *
+     * @param email the email of the login request
+     * @param ip    the IP address of the client
+     * @return 0 if the login may be attempted, otherwise the number of seconds before the next attempt
+     */
+    public long retryAfterSeconds(String email, String ip) {
+        long now = System.currentTimeMillis();
+        long retryAfterMs = Math.max(
+                retryAfterMs(emailAttempts, normalize(email), maxFailuresPerEmail, now),
+                retryAfterMs(ipAttempts, ip, maxFailuresPerIp, now));
+        return retryAfterMs <= 0 ? 0 : TimeUnit.MILLISECONDS.toSeconds(retryAfterMs + 999);
+    }
+
+    /**
+     * Records a failed login.
+     *
+     * @param email the email of the login request
+     * @param ip    the IP address of the client
+     */
+    public void onFailure(String email, String ip) {
+        long now = System.currentTimeMillis();
+        increment(emailAttempts, normalize(email), now);
+        increment(ipAttempts, ip, now);
+    }
+
+    /**
+     * Records a successful login, clearing the failures of the email.
+     *
+     * @param email the email of the login request
+     */
+    public void onSuccess(String email) {
+        emailAttempts.invalidate(normalize(email));
+    }
+
+    private Cache<String, Attempts> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfter(new Expiry<String, Attempts>() {
+                    @Override
+                    public long expireAfterCreate(String key, Attempts attempts, long currentTime) {
+                        long remainingMs = attempts.windowStart() + windowMs - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Attempts attempts, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Attempts attempts, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    private void increment(Cache<String, Attempts> cache, String key, long now) {
+        if (key == null) {
+            return;
+        }
+        cache.asMap().compute(key, (k, attempts) -> attempts == null || now - attempts.windowStart() >= windowMs
+                ? new Attempts(1, now)
+                : new Attempts(attempts.failures() + 1, attempts.windowStart()));
+    }
+
+    private long retryAfterMs(Cache<String, Attempts> cache, String key, int maxFailures, long now) {
+        Attempts attempts = key == null ? null : cache.getIfPresent(key);
+        if (attempts == null || attempts.failures() < maxFailures) {
+            return 0;
+        }
+        return attempts.windowStart() + windowMs - now;
+    }
+
+    private String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,259 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.entities.MailOutboxMessage;
+import com.owod.plateforme_api.models.entities.MailOutboxMessage.Status;
+import com.owod.plateforme_api.repositories.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service queueing outgoing emails in the "mail_outbox" collection and sending them in the background.
+ * <p>
+ * {@link #enqueue(SimpleMailMessage)} only stores the message, so requests never wait for the SMTP server.
+ * Workers of the application task executor claim batches of due messages with an atomic update, so several
+ * instances can drain the same outbox, and send each batch over a single SMTP connection. Failed messages are
+ * retried with exponential backoff until {@code owod.mail.max-attempts}, then marked {@link Status#FAILED}.
+ * A message whose worker died while sending is claimed again once its lock expires.
+ */
+@Service
+public class MailOutboxService {
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${owod.mail.workers:2}")
+    private int workers;
+
+    @Value("${owod.mail.batch-size:20}")
+    private int batchSize;
+
+    @Value("${owod.mail.lock-ms:300000}")
+    private long lockMs;
+
+    @Value("${owod.mail.retry-base-ms:30000}")
+    private long retryBaseMs;
+
+    @Value("${owod.mail.retry-max-ms:3600000}")
+    private long retryMaxMs;
+
+    @Value("${owod.mail.max-attempts:8}")
+    private int maxAttempts;
+
+    /**
+     * Number of workers currently draining the outbox.
+     */
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void initCounters() {
+        sentCounter = outboxCounter("sent");
+        retriedCounter = outboxCounter("retried");
+        failedCounter = outboxCounter("failed");
+    }
+
+    private Counter outboxCounter(String outcome) {
+        return Counter.builder("owod.mail.outbox")
+                .description("Outbox email sending attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores an email in the outbox and wakes up the workers.
+     *
+     * @param message the email to send, with a single recipient
+     * @return the stored outbox message
+     */
+    public MailOutboxMessage enqueue(SimpleMailMessage message) {
+        MailOutboxMessage outboxMessage = new MailOutboxMessage();
+        outboxMessage.setFrom(message.getFrom());
+        outboxMessage.setTo(message.getTo() == null || message.getTo().length == 0 ? null : message.getTo()[0]);
+        outboxMessage.setSubject(message.getSubject());
+        outboxMessage.setText(message.getText());
+        outboxMessage.setStatus(Status.PENDING);
+        Instant now = Instant.now();
+        outboxMessage.setCreatedAt(now);
+        outboxMessage.setNextAttemptAt(now);
+        MailOutboxMessage saved = mailOutboxRepository.insert(outboxMessage);
+        drain();
+        return saved;
+    }
+
+    /**
+     * Starts workers until {@code owod.mail.workers} are draining the outbox.
+     * Runs periodically to pick up retries and messages queued by other instances.
+     */
+    @Scheduled(initialDelayString = "${owod.mail.poll-ms:1000}", fixedDelayString = "${owod.mail.poll-ms:1000}")
+    public void drain() {
+        if (mailSender == null) {
+            return;
+        }
+        int active;
+        while ((active = activeWorkers.get()) < workers) {
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                try {
+                    taskExecutor.execute(this::work);
+                } catch (TaskRejectedException e) {
+                    activeWorkers.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends batches of due messages until the outbox has none left.
+     */
+    private void work() {
+        try {
+            List<MailOutboxMessage> batch;
+            while (!(batch = claimBatch()).isEmpty()) {
+                send(batch);
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Claims up to {@code owod.mail.batch-size} due messages, one atomic update each.
+     *
+     * @return the claimed messages, locked for this worker
+     */
+    private List<MailOutboxMessage> claimBatch() {
+        List<MailOutboxMessage> batch = new ArrayList<>();
+        while (batch.size() < batchSize) {
+            Instant now = Instant.now();
+            Query due = Query.query(new Criteria().orOperator(
+                    Criteria.where("status").is(Status.PENDING).and("nextAttemptAt").lte(now),
+                    Criteria.where("status").is(Status.SENDING).and("lockedUntil").lte(now)));
+            Update claim = new Update()
+                    .set("status", Status.SENDING)
+                    .set("lockedUntil", now.plusMillis(lockMs))
+                    .inc("attempts", 1);
+            MailOutboxMessage message = mongoTemplate.findAndModify(due, claim,
+                    FindAndModifyOptions.options().returnNew(true), MailOutboxMessage.class);
+            if (message == null) {
+                break;
+            }
+            batch.add(message);
+        }
+        return batch;
+    }
+
+    /**
+     * Sends a batch over a single SMTP connection, then records the outcome of each message.
+     *
+     * @param batch the claimed messages
+     */
+    private void send(List<MailOutboxMessage> batch) {
+        SimpleMailMessage[] messages = batch.stream().map(this::toMailMessage).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        List<String> sentIds = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (failure == null) {
+                sentIds.add(batch.get(i).getId());
+            } else {
+                retryLater(batch.get(i), failure);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(sentIds)),
+                    new Update().set("status", Status.SENT).set("sentAt", Instant.now()).unset("lockedUntil"),
+                    MailOutboxMessage.class);
+            sentCounter.increment(sentIds.size());
+        }
+    }
+
+    /**
+     * Schedules the next attempt of a failed message, or gives up after the last attempt.
+     *
+     * @param message the message that could not be sent
+     * @param failure the cause of the failure
+     */
+    private void retryLater(MailOutboxMessage message, Exception failure) {
+        Update update = new Update().set("lastError", String.valueOf(failure.getMessage())).unset("lockedUntil");
+        if (message.getAttempts() >= maxAttempts) {
+            update.set("status", Status.FAILED);
+            failedCounter.increment();
+        } else {
+            update.set("status", Status.PENDING).set("nextAttemptAt", Instant.now().plus(backoff(message.getAttempts())));
+            retriedCounter.increment();
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(message.getId())), update, MailOutboxMessage.class);
+    }
+
+    /**
+     * Computes the delay before the next attempt, doubling after each failure up to {@code owod.mail.retry-max-ms}.
+     *
+     * @param attempts the number of attempts already made
+     * @return the delay before the next attempt
+     */
+    Duration backoff(int attempts) {
+        long delay = retryBaseMs << Math.min(Math.max(attempts - 1, 0), 30);
+        return Duration.ofMillis(Math.min(delay, retryMaxMs));
+    }
+
+    private SimpleMailMessage toMailMessage(MailOutboxMessage outboxMessage) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(outboxMessage.getFrom());
+        message.setTo(outboxMessage.getTo());
+        message.setSubject(outboxMessage.getSubject());
+        message.setText(outboxMessage.getText());
+        return message;
+    }
+}
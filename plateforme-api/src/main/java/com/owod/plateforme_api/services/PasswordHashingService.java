@@ -0,0 +1,192 @@
+package com.owod.plateforme_api.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service running password hashing on a dedicated, bounded pool of threads.
+ * <p>
+ * BCrypt is deliberately slow, so a burst of logins hashed on the request threads would take every CPU
+ * and starve the other endpoints. Hashes are instead computed by a few threads, leaving the other cores
+ * free, with a bounded queue: when it is full, requests are refused at once with a
+ * {@link RejectedExecutionException} instead of piling up.
+ * <p>
+ * To keep failed logins indistinguishable, a password is checked against a precomputed dummy hash when
+ * there is no stored hash, and {@link #awaitTypicalMatch()} waits as long as the check of a known email usually
+ * takes, user lookup included, without hashing anything, when the email is known not to exist. It goes through the same queue, so that it
+ * is refused like a real check when the pool is saturated.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Number of hashing threads, 0 for half of the available processors.
+     */
+    @Value("${owod.password.threads:0}")
+    private int threads;
+
+    @Value("${owod.password.queue-size:32}")
+    private int queueSize;
+
+    /**
+     * Maximum time a request waits for its hash, queueing included.
+     */
+    @Value("${owod.password.wait-ms:2000}")
+    private long waitMs;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejectedCounter;
+
+    /**
+     * Hash of a random password, checked when a user has no hash so that the check takes the usual time.
+     */
+    private String dummyHash;
+
+    /**
+     * Moving average of the duration of the check of a known email, user lookup and queueing included,
+     * in nanoseconds.
+     */
+    private final AtomicLong typicalCheckNanos = new AtomicLong();
+
+    @PostConstruct
+    void initExecutor() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        rejectedCounter = Counter.builder("owod.password.rejected")
+                .description("Password hashes refused because the hashing pool is saturated")
+                .register(meterRegistry);
+        Gauge.builder("owod.password.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+        long start = System.nanoTime();
+        passwordEncoder.matches("dummy", dummyHash);
+        typicalCheckNanos.set(System.nanoTime() - start);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Checks a raw password against its encoded form.
+     * Without stored hash, the password is checked against the dummy hash and never matches.
+     *
+     * @param rawPassword     the password to check
+     * @param encodedPassword the stored hash, or null if there is none
+     * @return true if the password matches the hash, false otherwise
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            run(() -> passwordEncoder.matches(rawPassword, dummyHash));
+            return false;
+        }
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Records how long the check of a known email took, from the user lookup to the end of the password check,
+     * as the duration that {@link #awaitTypicalMatch()} imitates.
+     *
+     * @param elapsedNanos the duration of the check, in nanoseconds
+     */
+    public void recordKnownEmailCheck(long elapsedNanos) {
+        typicalCheckNanos.updateAndGet(average -> average + (elapsedNanos - average) / 8);
+    }
+
+    /**
+     * Waits as long as the check of a known email usually takes, without checking anything.
+     * Used to answer for unknown emails in the same time and with the same refusals as for wrong passwords:
+     * an empty task is queued like a hash, then the rest of the typical duration is spent asleep.
+     *
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public void awaitTypicalMatch() {
+        long start = System.nanoTime();
+        run(() -> null);
+        try {
+            TimeUnit.NANOSECONDS.sleep(typicalCheckNanos.get() - (System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hashes a raw password.
+     *
+     * @param rawPassword the password to hash
+     * @return the encoded password
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result.
+     *
+     * @param task the hashing task
+     * @return the result of the task
+     * @throws RejectedExecutionException if the queue is full or the result is not ready in time
+     */
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+        try {
+            return future.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.owod.plateforme_api.services;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.utils.BloomFilter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service telling, without any database access, that an email is certainly not registered.
+ * <p>
+ * The emails of the "users" collection are kept in a {@link BloomFilter}, built at startup and rebuilt
+ * periodically to drop deleted accounts. Users saved through {@link UserService} are added at once.
+ * Users registered by another instance are caught up when an email is missing from the filter, by reading
+ * the users created since the last catch-up, at most once per {@code owod.login.email-filter.catch-up-ms}.
+ */
+@Service
+public class RegisteredEmailService {
+
+    /**
+     * Margin applied to the catch-up watermark, covering clock differences between instances.
+     */
+    private static final long CLOCK_SKEW_MS = 5_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${owod.login.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${owod.login.email-filter.catch-up-ms:1000}")
+    private long catchUpMs;
+
+    /**
+     * Emails of the registered users, or null until first loaded.
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * Users whose ID is above this one were created after the last load or catch-up. Guarded by {@code this}.
+     */
+    private ObjectId watermark;
+
+    private volatile long lastCatchUp;
+
+    /**
+     * Checks whether an email may belong to a registered user.
+     *
+     * @param email the email to check
+     * @return false if no user is registered with the email, true if one may be
+     */
+    public boolean mightBeRegistered(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null || current.mightContain(email)) {
+            return true;
+        }
+        if (System.currentTimeMillis() - lastCatchUp >= catchUpMs) {
+            catchUp();
+            return filter.mightContain(email);
+        }
+        return false;
+    }
+
+    /**
+     * Records the email of a saved user.
+     *
+     * @param email the email of the user
+     */
+    public void add(String email) {
+        BloomFilter current = filter;
+        if (current != null && email != null) {
+            current.add(email);
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the "users" collection.
+     * Runs at startup, then periodically so that the emails of deleted users are dropped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${owod.login.email-filter.reload-ms:3600000}",
+            fixedDelayString = "${owod.login.email-filter.reload-ms:3600000}")
+    public void reload() {
+        MongoCollection<Document> users = usersCollection();
+        ObjectId loadWatermark = watermarkFromNow();
+        // Room for the users registered until the next reload
+        BloomFilter loaded = new BloomFilter(Math.max(10_000, users.estimatedDocumentCount() * 2), falsePositiveRate);
+        addEmails(loaded, users.find().projection(Projections.include("email")));
+        synchronized (this) {
+            filter = loaded;
+            watermark = loadWatermark;
+            lastCatchUp = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Adds the emails of the users created since the last load or catch-up.
+     */
+    private synchronized void catchUp() {
+        if (System.currentTimeMillis() - lastCatchUp < catchUpMs) {
+            return;
+        }
+        ObjectId nextWatermark = watermarkFromNow();
+        addEmails(filter, usersCollection()
+                .find(Filters.gt("_id", watermark))
+                .projection(Projections.include("email")));
+        watermark = nextWatermark;
+        lastCatchUp = System.currentTimeMillis();
+    }
+
+    private void addEmails(BloomFilter target, Iterable<Document> users) {
+        for (Document user : users) {
+            String email = user.getString("email");
+            if (email != null) {
+                target.add(email);
+            }
+        }
+    }
+
+    private MongoCollection<Document> usersCollection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class));
+    }
+
+    /**
+     * Builds the lowest ObjectId generated a few seconds ago, so that every user created since is above it.
+     */
+    private ObjectId watermarkFromNow() {
+        long seconds = (System.currentTimeMillis() - CLOCK_SKEW_MS) / 1000;
+        return new ObjectId(String.format("%08x0000000000000000", seconds));
+    }
+}
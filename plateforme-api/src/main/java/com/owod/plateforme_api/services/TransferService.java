@@ -31,7 +31,7 @@ public class TransferService {
      * <p>
      * - Validates that both User and Designer exist.
      * - Ensures the User does not already own a Designer.
-     * - Clears the Designer's createdBy field and saves the change.
+     * - Clears the Designer's createdBy field and saves the change, which evicts it from the designer cache.
      * - Assigns the Designer to the User and persists the update.
      *
      * @param userId     the ID of the user to receive the designer
@@ -1,10 +1,14 @@
 package com.owod.plateforme_api.services;
 
 import com.mongodb.DuplicateKeyException;
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.dtos.PageDto;
 import com.owod.plateforme_api.models.entities.AccountType;
 import com.owod.plateforme_api.models.entities.Designer;
 import com.owod.plateforme_api.models.entities.User;
 import com.owod.plateforme_api.repositories.UserRepository;
+import com.owod.plateforme_api.security.AuthenticatedUser;
+import com.owod.plateforme_api.security.CurrentUserContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -26,6 +30,12 @@ public class UserService {
     @Autowired
     private DesignerService designerService;
 
+    @Autowired
+    private CurrentUserContext currentUserContext;
+
+    @Autowired
+    private RegisteredEmailService registeredEmailService;
+
     /**
      * Finds a user by their email address.
      *
@@ -38,11 +48,17 @@ public class UserService {
 
     /**
      * Finds a user by their unique user ID.
+     * <p>
+     * During a request, the authenticated user is read once through {@link CurrentUserContext}
+     * and shared by every later lookup of the same request.
      *
      * @param userId the ID of the user to find
      * @return an Optional containing the User if found, or empty otherwise
      */
     public Optional<User> findByUserId(String userId) {
+        if (CurrentUserContext.isActive()) {
+            return currentUserContext.findUser(userId);
+        }
         return userRepository.findByUserId(userId);
     }
 
@@ -65,7 +81,12 @@ public class UserService {
      */
     public User save(User user) {
         try {
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            registeredEmailService.add(saved.getEmail());
+            if (CurrentUserContext.isActive()) {
+                currentUserContext.onSaved(saved);
+            }
+            return saved;
         } catch (DuplicateKeyException e) {
             throw new IllegalArgumentException("Email is already in use");
         }
@@ -93,12 +114,18 @@ public AccountType hasAccount(String userId) {
 
     /**
      * Checks if the authenticated user is the owner of the given designer.
+     * <p>
+     * Ownership stated by the JWT claims is accepted without reading the user. Otherwise the user is
+     * read, as the designer may have been assigned after the token was issued.
      *
      * @param designerId  the ID of the designer to verify ownership
      * @param userDetails the authenticated user's details
      * @return true if the user owns the designer, false otherwise
      */
     public boolean isDesignerOwner(String designerId, UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser authenticated && designerId.equals(authenticated.getDesignerId())) {
+            return true;
+        }
         String userId = userDetails.getUsername();
         return findByUserId(userId)
                 .map(u -> designerId.equals(u.getDesignerId()))
@@ -107,12 +134,18 @@ public AccountType hasAccount(String userId) {
 
     /**
      * Cheks if the authenticated user is the owner of the given company.
+     * <p>
+     * Ownership stated by the JWT claims is accepted without reading the user. Otherwise the user is
+     * read, as the company may have been created after the token was issued.
      *
      * @param companyId id of company to verify ownership
      * @param userDetails the authenticated user
      * @return true if user is the owner, false otherwise
      */
     public boolean isCompanyOwner(String companyId, UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser authenticated && companyId.equals(authenticated.getCompanyId())) {
+            return true;
+        }
         String userId = userDetails.getUsername();
         return findByUserId(userId)
                 .map(u -> companyId.equals(u.getCompanyId()))
@@ -158,18 +191,57 @@ public AccountType hasAccount(String userId) {
 
     /**
      * Retrieves the list of Designer friends for a given user.
+     * <p>
+     * All friends are read with a single query instead of one lookup per friend.
      *
      * @param userId the ID of the user whose friends to retrieve
      * @return a list of Designer entities representing the user's friends
      */
     public List<Designer> getUserFriends(String userId) {
-        return findByUserId(userId)
-                .map(user -> user.getFriendsId().stream()
-                        .map(designerService::findById)
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .collect(Collectors.toList()))
-                .orElse(Collections.emptyList());
+        Set<String> friendsId = findByUserId(userId)
+                .map(User::getFriendsId)
+                .orElse(Collections.emptySet());
+        return friendsId.isEmpty() ? Collections.emptyList() : designerService.findAllById(friendsId);
+    }
+
+    /**
+     * Retrieves one page of a user's Designer friends as summaries, sorted by designer ID.
+     * <p>
+     * The page is cut from the user's friend list before querying, so only the designers of the
+     * page are read and the cost does not grow with the number of friends.
+     * <p>
+     * Friend IDs of deleted designers stay in the list, so the total number of elements and of pages is an
+     * upper bound, and a page may hold fewer summaries than its size. Counting only the existing designers
+     * would read the whole list on each page, and would disagree with pages cut by position in the list.
+     *
+     * @param userId the ID of the user whose friends to retrieve
+     * @param page   the zero-based page number
+     * @param size   the page size, capped to {@link DesignerSearchService#MAX_PAGE_SIZE}
+     * @return the requested page of friend summaries, with the number of friend IDs as total,
+     *         empty if the user is not found
+     * @throws IllegalArgumentException if the page is negative
+     */
+    public PageDto<DesignerSummary> getUserFriendsPage(String userId, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, DesignerSearchService.MAX_PAGE_SIZE));
+        Set<String> friendsId = findByUserId(userId)
+                .map(User::getFriendsId)
+                .orElse(Collections.emptySet());
+
+        List<String> pageIds = friendsId.stream()
+                .sorted()
+                .skip((long) page * pageSize)
+                .limit(pageSize)
+                .toList();
+        List<DesignerSummary> friends = pageIds.isEmpty()
+                ? Collections.emptyList()
+                : designerService.findSummariesByIds(pageIds).stream()
+                        .sorted(Comparator.comparing(DesignerSummary::id))
+                        .toList();
+        int totalPages = (friendsId.size() + pageSize - 1) / pageSize;
+        return new PageDto<>(friends, page, pageSize, (long) friendsId.size(), totalPages, null);
     }
 
     /**
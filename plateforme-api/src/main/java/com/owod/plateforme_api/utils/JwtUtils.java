@@ -1,30 +1,90 @@
 package com.owod.plateforme_api.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.owod.plateforme_api.models.entities.Role;
 import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.services.JwtKeyService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import jakarta.servlet.http.Cookie;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Utility component for generating, validating, and parsing JSON Web Tokens (JWT)
  * and for creating secure HTTP cookies to store them.
+ * <p>
+ * Verified tokens are kept in a bounded in-memory cache until they expire, so the requests of a
+ * session only pay for signature verification once. Rejected tokens are remembered for a short time too,
+ * so a client replaying an expired or forged cookie does not trigger a parse and an exception on each
+ * request. Validation outcomes are counted in the {@code owod.jwt.validations} metric.
+ * Signing keys and the parser are prebuilt and rotated by {@link JwtKeyService}.
  */
 @Component
 public class JwtUtils {
 
-    @Value("${owod.plateforme-api.jwtSecret}")
-    private String jwtSecret;
+    /**
+     * Claims of a verified token, as used to authenticate a request.
+     *
+     * @param userId     the user ID stored as subject
+     * @param roles      the role authorities of the user
+     * @param designerId the ID of the designer owned by the user when the token was issued, or null
+     * @param companyId  the ID of the company owned by the user when the token was issued, or null
+     * @param expiresAt  the expiration time of the token, in epoch milliseconds
+     */
+    public record TokenClaims(String userId, List<String> roles, String designerId, String companyId, long expiresAt) {
+    }
+
+    /**
+     * Outcome of a token validation.
+     *
+     * @param status the validation status
+     * @param claims the claims of the token if valid, null otherwise
+     */
+    public record TokenValidation(Status status, TokenClaims claims) {
+
+        public enum Status {
+            VALID, EXPIRED, INVALID
+        }
+
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+    }
+
+    /**
+     * Cached validation, with the key ring it was computed with.
+     */
+    private record CachedValidation(TokenValidation validation, JwtKeyService.KeyRing keyRing) {
+    }
+
+    private static final TokenValidation EXPIRED = new TokenValidation(TokenValidation.Status.EXPIRED, null);
+    private static final TokenValidation INVALID = new TokenValidation(TokenValidation.Status.INVALID, null);
+
+    @Autowired
+    private JwtKeyService jwtKeyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Value("${owod.plateforme-api.jwtExpirationMs}")
     private int jwtExpirationMs;
@@ -38,27 +98,157 @@ public class JwtUtils {
     @Value("${cookie.sameSite}")
     private boolean sameSite;
 
+    @Value("${owod.jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
+    @Value("${owod.jwt.rejected-cache-ms:60000}")
+    private long rejectedCacheMs;
+
+    /**
+     * Verified tokens with their claims, keyed by the SHA-256 of the token, each entry expiring with its token.
+     */
+    private Cache<String, CachedValidation> claimsCache;
+
     /**
-     * Generates a JWT containing the user's ID as subject and their roles as a claim.
-     * Token is signed using HS512 algorithm and expires after configured milliseconds.
+     * Recently rejected tokens. Kept apart so a flood of forged tokens cannot evict valid sessions,
+     * and only for a short time so a key added by a rotation on another instance is picked up.
+     */
+    private Cache<String, CachedValidation> rejectedCache;
+
+    private Counter validCounter;
+    private Counter expiredCounter;
+    private Counter invalidCounter;
+
+    /**
+     * Builds the caches of validated tokens and the validation counters.
+     */
+    @PostConstruct
+    void initClaimsCache() {
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, CachedValidation>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedValidation cached, long currentTime) {
+                        long expiresAt = cached.validation().claims().expiresAt();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedValidation cached, long currentTime, long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, cached.validation().claims().expiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedValidation cached, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        rejectedCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfterWrite(rejectedCacheMs, TimeUnit.MILLISECONDS)
+                .build();
+
+        validCounter = validationCounter("valid");
+        expiredCounter = validationCounter("expired");
+        invalidCounter = validationCounter("invalid");
+    }
+
+    private Counter validationCounter(String outcome) {
+        return Counter.builder("owod.jwt.validations")
+                .description("JWT validations by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Generates a JWT containing the user's ID as subject, their roles and the IDs of their designer
+     * and company accounts as claims, so that ownership can be checked without reading the user.
+     * Token is signed using HS512 algorithm with the current signing key, whose ID is set in the "kid" header,
+     * and expires after configured milliseconds.
      *
      * @param user the User entity for which to generate the token
      * @return the generated JWT string
      */
     public String generateToken(User user) {
-        List<String> roles = user.getRoles().stream()
+        List<String> roles = user.getRoles() == null ? List.of() : user.getRoles().stream()
                 .map(Role::authority)
                 .toList();
 
+        JwtKeyService.KeyRing keyRing = jwtKeyService.current();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.signingKeyId())
                 .setSubject(user.getUserId())
                 .claim("roles", roles)
+                .claim("designerId", user.getDesignerId())
+                .claim("companyId", user.getCompanyId())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(keyRing.signingKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies the JWT once and returns its claims.
+     *
+     * @param token the JWT to parse
+     * @return the claims of the token, or null if it is invalid or expired
+     */
+    public TokenClaims parse(String token) {
+        return validate(token).claims();
+    }
+
+    /**
+     * Validates the JWT and returns the outcome, without throwing.
+     * <p>
+     * A token already validated is served from the caches without any parsing or cryptographic work.
+     * Entries are keyed by the SHA-256 of the whole token, so a different or tampered token can never match
+     * a cached one, and the caches never hold a usable token. Valid tokens are evicted when they expire, rejected ones after a short delay, and any entry
+     * computed before a change of the signing keys is validated again.
+     *
+     * @param token the JWT to validate
+     * @return the validation outcome, with the claims if the token is valid
+     */
+    public TokenValidation validate(String token) {
+        JwtKeyService.KeyRing keyRing = jwtKeyService.current();
+        String key = cacheKey(token);
+        CachedValidation cached = claimsCache.getIfPresent(key);
+        if (cached == null) {
+            cached = rejectedCache.getIfPresent(key);
+        }
+        if (cached == null || cached.keyRing() != keyRing) {
+            TokenValidation verified = verify(token, keyRing);
+            if (cached != null) {
+                claimsCache.invalidate(key);
+                rejectedCache.invalidate(key);
+            }
+            cached = new CachedValidation(verified, keyRing);
+            (verified.isValid() ? claimsCache : rejectedCache).put(key, cached);
+        }
+        TokenValidation validation = cached.validation();
+        switch (validation.status()) {
+            case VALID -> validCounter.increment();
+            case EXPIRED -> expiredCounter.increment();
+            case INVALID -> invalidCounter.increment();
+        }
+        return validation;
+    }
+
+    /**
+     * Computes the key of a token in the caches.
+     *
+     * @param token the JWT
+     * @return the hexadecimal SHA-256 of the token
+     */
+    private static String cacheKey(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Validates the provided JWT string by parsing it with the signing key.
      *
@@ -66,17 +256,34 @@ public class JwtUtils {
      * @return true if the token is valid and not expired; false otherwise
      */
     public boolean validateToken(String token) {
+        return validate(token).isValid();
+    }
+
+    /**
+     * Parses and verifies a token not found in the caches.
+     * Parsing failures are the only place where exceptions are raised, once per distinct token.
+     *
+     * @param token   the JWT to verify
+     * @param keyRing the keys to verify the token with
+     * @return the validation outcome
+     */
+    private TokenValidation verify(String token, JwtKeyService.KeyRing keyRing) {
+        if (token == null || token.isEmpty()) {
+            return INVALID;
+        }
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
+            Claims claims = keyRing.parser().parseClaimsJws(token).getBody();
+            return new TokenValidation(TokenValidation.Status.VALID, new TokenClaims(
+                    claims.getSubject(),
+                    readRoles(claims),
+                    claims.get("designerId", String.class),
+                    claims.get("companyId", String.class),
+                    claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE));
         } catch (ExpiredJwtException e) {
-            System.err.println("Token expired");
-        } catch (SignatureException e) {
-            System.err.println("Invalid JWT signature");
-        } catch (Exception e) {
-            System.err.println("Invalid JWT token");
+            return EXPIRED;
+        } catch (RuntimeException e) {
+            return INVALID;
         }
-        return false;
     }
 
     /**
@@ -86,22 +293,17 @@ public class JwtUtils {
      * @return the user ID contained in the token subject
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return getAllClaimsFromToken(token).getSubject();
     }
 
     /**
-     * Parses all claims stored in the JWT.
+     * Parses all claims stored in the JWT, verifying it with the key named by its "kid" header.
      *
      * @param token the JWT string
      * @return the Claims object containing all token claims
      */
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
+        return jwtKeyService.current().parser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -113,18 +315,38 @@ public class JwtUtils {
      * @return list of role authority strings, or empty list if none present
      */
     public List<String> getRolesFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
+        return readRoles(getAllClaimsFromToken(token));
+    }
+
+    /**
+     * Reads the roles claim as a list of strings.
+     *
+     * @param claims the claims of a verified token
+     * @return list of role authority strings, or empty list if none present
+     */
+    private List<String> readRoles(Claims claims) {
         Object rawRoles = claims.get("roles");
         if (rawRoles instanceof List<?>) {
             @SuppressWarnings("unchecked")
             List<Object> list = (List<Object>) rawRoles;
             return list.stream()
                     .map(Object::toString)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toUnmodifiableList());
         }
         return Collections.emptyList();
     }
 
+    /**
+     * Issues a new JWT for the user in a session cookie, e.g. at login or to refresh the
+     * ownership claims after the user created an account.
+     *
+     * @param user the User entity for which to issue the token
+     * @return the "jwt" cookie holding the token
+     */
+    public Cookie createTokenCookie(User user) {
+        return createCookie("jwt", generateToken(user), 24 * 60 * 60, true);
+    }
+
     /**
      * Creates a secure HTTP cookie for storing the JWT.
      * Sets HttpOnly, secure, SameSite attributes, path, and max age.
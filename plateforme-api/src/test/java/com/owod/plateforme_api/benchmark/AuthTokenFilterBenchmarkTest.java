@@ -0,0 +1,106 @@
+package com.owod.plateforme_api.benchmark;
+
+import com.owod.plateforme_api.models.entities.Role;
+import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.security.AuthTokenFilter;
+import com.owod.plateforme_api.utils.JwtUtils;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput benchmark of the JWT authentication of a request, comparing the former three
+ * verifications per request with the single cached parse used by {@link AuthTokenFilter}.
+ * Run with {@code mvn test -Dbenchmarks=true -Dtest=AuthTokenFilterBenchmarkTest}.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class AuthTokenFilterBenchmarkTest {
+
+    private static final int SESSIONS = 100;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 100;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private AuthTokenFilter authTokenFilter;
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filter_shouldAuthenticateRepeatSessionsWithoutReverifying() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            User user = new User();
+            user.setUserId("user" + i);
+            user.setRoles(Set.of(Role.USER));
+            tokens.add(jwtUtils.generateToken(user));
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runTripleVerification(tokens);
+            runFilter(tokens);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            runTripleVerification(tokens);
+        }
+        double before = requestsPerSecond(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            runFilter(tokens);
+        }
+        double after = requestsPerSecond(System.nanoTime() - start);
+
+        System.out.printf("JWT authentication: before %.0f req/s, after %.0f req/s (x%.1f)%n", before, after, after / before);
+        assertTrue(after > before * 3, "Cached parse should be at least 3 times faster than triple verification");
+    }
+
+    /**
+     * Authenticates each token as the filter formerly did: validate, then read subject and roles,
+     * each call verifying the signature again.
+     */
+    private void runTripleVerification(List<String> tokens) {
+        for (String token : tokens) {
+            jwtUtils.getAllClaimsFromToken(token);
+            jwtUtils.getUsernameFromToken(token);
+            jwtUtils.getRolesFromToken(token);
+        }
+    }
+
+    private void runFilter(List<String> tokens) throws Exception {
+        for (String token : tokens) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+            request.setCookies(new Cookie("jwt", token));
+            authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertTrue(SecurityContextHolder.getContext().getAuthentication() != null);
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private double requestsPerSecond(long elapsedNanos) {
+        return (double) SESSIONS * MEASURED_ROUNDS / (elapsedNanos / 1_000_000_000.0);
+    }
+}
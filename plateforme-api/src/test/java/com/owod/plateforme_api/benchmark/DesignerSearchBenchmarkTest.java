@@ -0,0 +1,118 @@
+package com.owod.plateforme_api.benchmark;
+
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.dtos.PageDto;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.services.DesignerSearchService;
+import com.owod.plateforme_api.services.DesignerTextIndexService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency benchmark of the full-text designer search on a 50k designers catalogue.
+ * Run with {@code mvn test -Dbenchmarks=true -Dtest=DesignerSearchBenchmarkTest}.
+ * <p>
+ * It runs against the Mongo of the other integration tests ({@code MONGO_URI}, localhost by default), not an
+ * embedded one: Mongo is only read to seed and load the index, searches never reach it, so the server does
+ * not change the measured latencies.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class DesignerSearchBenchmarkTest {
+
+    private static final int DESIGNERS = 50_000;
+    private static final int WARMUP_QUERIES = 500;
+    private static final int MEASURED_QUERIES = 2_000;
+    private static final long P99_BUDGET_NANOS = 20_000_000L;
+
+    private static final String[] FIRSTNAMES = {"Hélène", "Kofi", "Amina", "Jean", "Awa", "Moussa", "Claire", "Yao", "Fatou", "Paul"};
+    private static final String[] LASTNAMES = {"Mercier", "Mensah", "Diallo", "Dupont", "Koné", "Traoré", "Martin", "Adjovi", "Ndiaye", "Bernard"};
+    private static final String[] PROFESSIONS = {"Designer graphique", "Styliste", "Architecte d'intérieur", "Designer produit", "Artisan"};
+    private static final String[] WORDS = {"textile", "mode", "bois", "céramique", "identité", "visuelle", "mobilier", "durable",
+            "innovation", "tradition", "wax", "bogolan", "lumière", "espace", "packaging", "typographie", "atelier", "Cotonou", "Dakar", "Abidjan"};
+    private static final String[] QUERIES = {"mercier", "hel", "designer textile", "styliste wax", "kofi mensah",
+            "architecte interieur", "ceramique durable", "de", "bogolan atelier dakar", "pa"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DesignerSearchService designerSearchService;
+
+    @Autowired
+    private DesignerTextIndexService designerTextIndexService;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designers");
+        Random random = new Random(42);
+        List<Designer> batch = new ArrayList<>();
+        for (int i = 0; i < DESIGNERS; i++) {
+            Designer designer = new Designer();
+            designer.setFirstname(pick(random, FIRSTNAMES) + i);
+            designer.setLastname(pick(random, LASTNAMES));
+            designer.setProfession(pick(random, PROFESSIONS));
+            StringBuilder biography = new StringBuilder();
+            for (int w = 0; w < 30; w++) {
+                biography.append(pick(random, WORDS)).append(' ');
+            }
+            designer.setBiography(biography.toString());
+            batch.add(designer);
+            if (batch.size() == 1_000) {
+                mongoTemplate.insert(batch, Designer.class);
+                batch.clear();
+            }
+        }
+        designerTextIndexService.reload();
+    }
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.dropCollection("designers");
+        designerTextIndexService.reload();
+    }
+
+    @Test
+    void searchText_p99LatencyShouldStayUnderBudget() {
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            designerSearchService.searchText(QUERIES[i % QUERIES.length], i % 3, 20);
+        }
+
+        long[] durations = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            PageDto<DesignerSummary> page = designerSearchService.searchText(QUERIES[i % QUERIES.length], i % 3, 20);
+            durations[i] = System.nanoTime() - start;
+            assertFalse(page.content().isEmpty());
+        }
+        Arrays.sort(durations);
+        long p50 = durations[MEASURED_QUERIES / 2];
+        long p99 = durations[(int) Math.ceil(MEASURED_QUERIES * 0.99) - 1];
+        System.out.printf("Designer full-text search on %d designers: p50=%.2f ms, p99=%.2f ms%n",
+                DESIGNERS, p50 / 1e6, p99 / 1e6);
+
+        assertTrue(p99 < P99_BUDGET_NANOS, "p99 latency " + p99 / 1e6 + " ms exceeds 20 ms");
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
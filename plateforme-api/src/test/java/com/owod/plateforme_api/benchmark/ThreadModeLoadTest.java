@@ -0,0 +1,241 @@
+package com.owod.plateforme_api.benchmark;
+
+import com.owod.plateforme_api.PlateformeApiApplication;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.Role;
+import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.services.ImageStorageService;
+import com.owod.plateforme_api.utils.JwtUtils;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test comparing request handling on platform threads and on virtual threads.
+ * <p>
+ * The application is started twice, once per mode, against the test Mongo database. S3 and SMTP are
+ * replaced by local stubs that block for {@link #STUB_LATENCY_MS}, like the real services do.
+ * Concurrent clients mix catalogue reads, profile picture uploads and contact messages, then the
+ * throughput and latency percentiles of both modes are printed.
+ * Run with {@code mvn test -Dbenchmarks=true -Dtest=ThreadModeLoadTest},
+ * optionally with {@code -Dload.clients=...} and {@code -Dload.seconds=...}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ThreadModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 15);
+    private static final int WARMUP_SECONDS = 5;
+    private static final int DESIGNERS = 200;
+    private static final long STUB_LATENCY_MS = 50;
+
+    private record Result(int requests, int errors, double seconds, long p50Nanos, long p99Nanos) {
+        double throughput() {
+            return requests / seconds;
+        }
+    }
+
+    @Test
+    void compareThroughputAndP99() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        print("platform", platform);
+        print("virtual ", virtual);
+        assertEquals(0, platform.errors(), "Failed requests on platform threads");
+        assertEquals(0, virtual.errors(), "Failed requests on virtual threads");
+        assertTrue(platform.requests() > 0 && virtual.requests() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                PlateformeApiApplication.class, LoadTestStubs.class)
+                .properties(
+                        "spring.config.additional-location=classpath:application-test.properties",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.port=0",
+                        "logging.level.org.mongodb.driver=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> designerIds = seed(context.getBean(MongoTemplate.class));
+            String cookie = "jwt=" + context.getBean(JwtUtils.class).generateToken(owner(designerIds.get(0)));
+
+            load(port, designerIds.get(0), cookie, WARMUP_SECONDS);
+            return load(port, designerIds.get(0), cookie, SECONDS);
+        }
+    }
+
+    private List<String> seed(MongoTemplate mongoTemplate) {
+        mongoTemplate.dropCollection("designers");
+        mongoTemplate.dropCollection("users");
+        List<Designer> designers = new ArrayList<>();
+        for (int i = 0; i < DESIGNERS; i++) {
+            Designer designer = new Designer();
+            designer.setFirstname("Designer" + i);
+            designer.setLastname("Lastname" + (i % 31));
+            designer.setBiography("Biographie du designer " + i);
+            designers.add(designer);
+        }
+        return mongoTemplate.insert(designers, Designer.class).stream().map(Designer::getId).toList();
+    }
+
+    private User owner(String designerId) {
+        User user = new User();
+        user.setUserId("loadUser");
+        user.setDesignerId(designerId);
+        user.setRoles(Set.of(Role.USER));
+        return user;
+    }
+
+    /**
+     * Runs the clients for the given duration, each sending its next request as soon as the previous one is answered.
+     */
+    private Result load(int port, String designerId, String cookie, int seconds) throws Exception {
+        String base = "http://localhost:" + port;
+        String boundary = "loadtestboundary";
+        byte[] picture = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"profilePicture\"; filename=\"picture.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n"
+                + "x".repeat(10_000) + "\r\n"
+                + "--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+        AtomicInteger errors = new AtomicInteger();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long start = System.nanoTime();
+        List<Future<List<Long>>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(executor).version(HttpClient.Version.HTTP_1_1).build()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest(base, designerId, cookie, boundary, picture);
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - sent);
+                        if (response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> client : clients) {
+                all.addAll(client.get());
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            long[] sorted = all.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Result(sorted.length, errors.get(), elapsed,
+                    sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)]);
+        }
+    }
+
+    /**
+     * Picks the next request: 80% catalogue pages, 15% picture uploads, 5% contact messages.
+     */
+    private HttpRequest nextRequest(String base, String designerId, String cookie, String boundary, byte[] picture) {
+        int dice = ThreadLocalRandom.current().nextInt(100);
+        if (dice < 80) {
+            return HttpRequest.newBuilder(URI.create(base + "/designers?size=20")).GET().build();
+        }
+        if (dice < 95) {
+            return HttpRequest.newBuilder(URI.create(base + "/designers/" + designerId + "/update-picture"))
+                    .header("Cookie", cookie)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(picture))
+                    .build();
+        }
+        return HttpRequest.newBuilder(URI.create(base + "/contact"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"load@mail.com\",\"subject\":\"Test\",\"reason\":\"Test\",\"description\":\"Test\"}"))
+                .build();
+    }
+
+    private void print(String mode, Result result) {
+        System.out.printf("%s threads: %6d requests, %7.1f req/s, p50=%.1f ms, p99=%.1f ms, %d errors%n",
+                mode, result.requests(), result.throughput(),
+                result.p50Nanos() / 1e6, result.p99Nanos() / 1e6, result.errors());
+    }
+
+    /**
+     * Local stubs for S3 and SMTP, blocking like the real services.
+     */
+    @TestConfiguration
+    static class LoadTestStubs {
+
+        @Bean
+        @Primary
+        public ImageStorageService loadTestImageStorageService() {
+            return new ImageStorageService() {
+                @Override
+                public String uploadImage(MultipartFile file) {
+                    sleep();
+                    return "http://fake.local/" + file.getOriginalFilename();
+                }
+
+                @Override
+                public String storeRendition(String originalUrl, String name, byte[] jpeg) {
+                    return ImageStorageService.renditionUrl(originalUrl, name);
+                }
+
+                @Override
+                public void delete(String url) {
+                }
+            };
+        }
+
+        @Bean
+        public JavaMailSenderImpl loadTestMailSender() {
+            return new JavaMailSenderImpl() {
+                @Override
+                public void send(SimpleMailMessage... simpleMessages) {
+                    sleep();
+                }
+
+                @Override
+                public void send(MimeMessage... mimeMessages) {
+                    sleep();
+                }
+            };
+        }
+
+        private static void sleep() {
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.owod.plateforme_api.benchmark;
+
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency benchmark of the friends page as the friend count grows.
+ * Run with {@code mvn test -Dbenchmarks=true -Dtest=UserFriendsBenchmarkTest}.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UserFriendsBenchmarkTest {
+
+    private static final int DESIGNERS = 5_000;
+    private static final int[] FRIEND_COUNTS = {10, 50, 200, 1_000};
+    private static final int WARMUP_CALLS = 50;
+    private static final int MEASURED_CALLS = 200;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    private final List<String> designerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designers");
+        mongoTemplate.dropCollection("users");
+        List<Designer> designers = new ArrayList<>();
+        for (int i = 0; i < DESIGNERS; i++) {
+            Designer designer = new Designer();
+            designer.setFirstname("Designer" + i);
+            designer.setLastname("Lastname" + (i % 97));
+            designer.setEmail("designer" + i + "@mail.com");
+            designer.setBiography("Biographie du designer " + i);
+            designers.add(designer);
+        }
+        mongoTemplate.insert(designers, Designer.class).forEach(designer -> designerIds.add(designer.getId()));
+
+        for (int friendCount : FRIEND_COUNTS) {
+            User user = new User();
+            user.setUserId("user" + friendCount);
+            user.setFriendsId(new HashSet<>(designerIds.subList(0, friendCount)));
+            mongoTemplate.save(user);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.dropCollection("designers");
+        mongoTemplate.dropCollection("users");
+    }
+
+    @Test
+    void getUserFriendsPage_latencyShouldStayFlatAsFriendsGrow() {
+        long[] medians = new long[FRIEND_COUNTS.length];
+        for (int c = 0; c < FRIEND_COUNTS.length; c++) {
+            String userId = "user" + FRIEND_COUNTS[c];
+            medians[c] = medianNanos(() -> userService.getUserFriendsPage(userId, 0, 20));
+            long fullList = medianNanos(() -> userService.getUserFriends(userId));
+            assertEquals(FRIEND_COUNTS[c], userService.getUserFriends(userId).size());
+            System.out.printf("%5d friends: page p50=%.2f ms, full list p50=%.2f ms%n",
+                    FRIEND_COUNTS[c], medians[c] / 1e6, fullList / 1e6);
+        }
+
+        long smallest = medians[0];
+        long largest = medians[medians.length - 1];
+        assertTrue(largest < smallest * 3,
+                "Friends page latency grew from " + smallest / 1e6 + " ms to " + largest / 1e6 + " ms");
+    }
+
+    private long medianNanos(Runnable call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+        long[] durations = new long[MEASURED_CALLS];
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long start = System.nanoTime();
+            call.run();
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        return durations[MEASURED_CALLS / 2];
+    }
+}
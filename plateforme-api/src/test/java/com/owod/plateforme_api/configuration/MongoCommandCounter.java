@@ -0,0 +1,47 @@
+package com.owod.plateforme_api.configuration;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonValue;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Compte les commandes envoyées à MongoDB, sous la forme "commande:collection",
+ * pour vérifier le nombre de requêtes par endpoint.
+ */
+@TestConfiguration
+public class MongoCommandCounter implements CommandListener {
+
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandCounterCustomizer() {
+        return builder -> builder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // Seules les commandes portant sur une collection sont comptées (pas hello, ping...)
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        if (target != null && target.isString()) {
+            commands.add(event.getCommandName() + ":" + target.asString().getValue());
+        }
+    }
+
+    public void reset() {
+        commands.clear();
+    }
+
+    public List<String> commands() {
+        return List.copyOf(commands);
+    }
+
+    public long count(String collection) {
+        return commands.stream().filter(c -> c.endsWith(":" + collection)).count();
+    }
+}
@@ -24,6 +24,15 @@ public class MongoTestConfig {
                 String name = file.getOriginalFilename();
                 return "http://fake.local/" + (name == null ? "file" : name);
             }
+
+            @Override
+            public String storeRendition(String originalUrl, String name, byte[] jpeg) {
+                return ImageStorageService.renditionUrl(originalUrl, name);
+            }
+
+            @Override
+            public void delete(String url) {
+            }
         };
     }
 }
\ No newline at end of file
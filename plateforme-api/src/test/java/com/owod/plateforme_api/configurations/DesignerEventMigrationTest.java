@@ -0,0 +1,68 @@
+package com.owod.plateforme_api.configurations;
+
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DesignerEventMigrationTest {
+
+    @Autowired
+    private DesignerEventMigration designerEventMigration;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designers");
+        mongoTemplate.dropCollection("designer_events");
+    }
+
+    @Test
+    void migrate_shouldMoveEmbeddedEventsAndBeIdempotent() {
+        // GIVEN
+        mongoTemplate.getCollection("designers").insertMany(List.of(
+                new Document("_id", "designer1").append("lastname", "Dupont").append("events", List.of(
+                        new Document("_id", "event1").append("title", "Salon")
+                                .append("startDate", mongoTemplate.getConverter().convertToMongoType(LocalDate.of(2026, 11, 2))),
+                        new Document("title", "Sans identifiant"))),
+                new Document("_id", "designer2").append("events", List.of(
+                        new Document("_id", "event1").append("title", "Atelier"))),
+                new Document("_id", "designer3").append("lastname", "Martin")
+        ));
+
+        // WHEN
+        int migrated = designerEventMigration.migrate();
+
+        // THEN
+        assertEquals(3, migrated);
+        assertEquals(0, designerEventMigration.migrate());
+        assertEquals(0, mongoTemplate.getCollection("designers").countDocuments(new Document("events", new Document("$exists", true))));
+        assertEquals("Dupont", mongoTemplate.getCollection("designers").find(new Document("_id", "designer1")).first().getString("lastname"));
+
+        DesignerEvent salon = mongoTemplate.findById("event1", DesignerEvent.class);
+        assertEquals("designer1", salon.getDesignerId());
+        assertEquals(LocalDate.of(2026, 11, 2), salon.getStartDate());
+
+        List<DesignerEvent> designer1Events = mongoTemplate.find(Query.query(Criteria.where("designerId").is("designer1")), DesignerEvent.class);
+        assertEquals(2, designer1Events.size());
+        List<DesignerEvent> designer2Events = mongoTemplate.find(Query.query(Criteria.where("designerId").is("designer2")), DesignerEvent.class);
+        assertEquals(1, designer2Events.size());
+        assertEquals("Atelier", designer2Events.get(0).getTitle());
+        assertNotEquals("event1", designer2Events.get(0).getId());
+    }
+}
@@ -0,0 +1,60 @@
+package com.owod.plateforme_api.configurations;
+
+import com.owod.plateforme_api.models.entities.JwtKey;
+import com.owod.plateforme_api.services.JwtKeyService;
+import io.jsonwebtoken.io.Encoders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class JwtKeyEncryptionMigrationTest {
+
+    @Autowired
+    private JwtKeyEncryptionMigration jwtKeyEncryptionMigration;
+
+    @Autowired
+    private JwtKeyService jwtKeyService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("jwt_keys");
+        jwtKeyService.reload();
+    }
+
+    @Test
+    void migrate_shouldEncryptLegacySecretsAndBeIdempotent() {
+        // GIVEN : une clé stockée en clair par une version précédente
+        byte[] secret = new byte[64];
+        Arrays.fill(secret, (byte) 7);
+        JwtKey key = new JwtKey();
+        key.setId("legacy");
+        key.setSecret(Encoders.BASE64.encode(secret));
+        key.setCreatedAt(Instant.now());
+        mongoTemplate.save(key);
+
+        // WHEN
+        int migrated = jwtKeyEncryptionMigration.migrate();
+
+        // THEN
+        assertEquals(1, migrated);
+        assertEquals(0, jwtKeyEncryptionMigration.migrate());
+        assertTrue(mongoTemplate.findById("legacy", JwtKey.class).getSecret().startsWith("aes-gcm:"));
+
+        jwtKeyService.reload();
+        assertEquals("legacy", jwtKeyService.current().signingKeyId());
+        assertArrayEquals(secret, jwtKeyService.current().signingKey().getEncoded());
+    }
+}
@@ -1,22 +1,41 @@
 package com.owod.plateforme_api.controllers;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.JwtKey;
 import com.owod.plateforme_api.models.entities.Role;
 import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.services.JwtKeyService;
+import com.owod.plateforme_api.services.RegisteredEmailService;
 import com.owod.plateforme_api.utils.JwtUtils;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import jakarta.servlet.http.Cookie;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -33,15 +52,29 @@ class AuthControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private TestRestTemplate restTemplate;
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private JwtKeyService jwtKeyService;
+
+    @Autowired
+    private RegisteredEmailService registeredEmailService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setup() {
         mongoTemplate.dropCollection("users");
+        mongoTemplate.dropCollection("jwt_keys");
+        jwtKeyService.reload();
     }
 
     @Test
@@ -53,6 +86,7 @@ class AuthControllerTest {
         user.setRoles(Set.of(Role.USER));
         user.setPassword(new BCryptPasswordEncoder().encode("password123"));
         mongoTemplate.save(user);
+        registeredEmailService.reload();
 
         String loginRequestJson = """
         {
@@ -79,6 +113,7 @@ class AuthControllerTest {
         user.setRoles(Set.of(Role.USER));
         user.setPassword(new BCryptPasswordEncoder().encode("password123"));
         mongoTemplate.save(user);
+        registeredEmailService.reload();
 
         String loginRequestJson = """
         {
@@ -176,4 +211,272 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.roles").isArray())
                 .andExpect(jsonPath("$.roles[0]").value("ROLE_USER"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void me_withTamperedJwtCookie_shouldNotReuseCachedClaims() throws Exception {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        user.setEmail("test@mail.com");
+        user.setRoles(Set.of(Role.USER));
+        mongoTemplate.save(user);
+        String token = jwtUtils.generateToken(user);
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1)
+                + (signature.charAt(0) == 'A' ? 'B' : 'A') + signature.substring(1);
+
+        // WHEN & THEN
+        mockMvc.perform(get("/auth/me").cookie(new Cookie("jwt", token)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/auth/me").cookie(new Cookie("jwt", token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value("user123"));
+        mockMvc.perform(get("/auth/me").cookie(new Cookie("jwt", tampered)))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rotateSigningKey_shouldSignWithNewKeyAndKeepIssuedTokensValid() throws Exception {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        user.setEmail("test@mail.com");
+        user.setRoles(Set.of(Role.USER));
+        mongoTemplate.save(user);
+        String oldToken = jwtUtils.generateToken(user);
+
+        // WHEN
+        mockMvc.perform(post("/auth/keys/rotate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keyId").isNotEmpty());
+        String newToken = jwtUtils.generateToken(user);
+
+        // THEN
+        String keyId = jwtKeyService.current().signingKeyId();
+        assertNotEquals(JwtKeyService.DEFAULT_KEY_ID, keyId);
+        assertTrue(jwtUtils.validateToken(newToken));
+        assertTrue(jwtUtils.validateToken(oldToken));
+        assertEquals(1, mongoTemplate.getCollection("jwt_keys").countDocuments());
+
+        mongoTemplate.dropCollection("jwt_keys");
+        jwtKeyService.reload();
+        assertFalse(jwtUtils.validateToken(newToken));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rotateSigningKey_shouldStoreEncryptedSecret() throws Exception {
+        // WHEN
+        mockMvc.perform(post("/auth/keys/rotate"))
+                .andExpect(status().isOk());
+
+        // THEN : le secret en base n'est pas celui qui signe les tokens
+        String stored = mongoTemplate.getCollection("jwt_keys").find().first().getString("secret");
+        String secret = Encoders.BASE64.encode(jwtKeyService.current().signingKey().getEncoded());
+        assertTrue(stored.startsWith("aes-gcm:"));
+        assertFalse(stored.contains(secret));
+    }
+
+    @Test
+    void reload_withLegacyPlainSecret_shouldKeepKeyWithoutWriting() {
+        // GIVEN : une clé stockée en clair par une version précédente
+        byte[] secret = new byte[64];
+        Arrays.fill(secret, (byte) 7);
+        JwtKey key = new JwtKey();
+        key.setId("legacy");
+        key.setSecret(Encoders.BASE64.encode(secret));
+        key.setCreatedAt(Instant.now());
+        mongoTemplate.save(key);
+
+        // WHEN
+        jwtKeyService.reload();
+
+        // THEN
+        assertEquals("legacy", jwtKeyService.current().signingKeyId());
+        assertArrayEquals(secret, jwtKeyService.current().signingKey().getEncoded());
+        assertEquals(Encoders.BASE64.encode(secret), mongoTemplate.findById("legacy", JwtKey.class).getSecret());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void rotateSigningKey_withoutAdminRole_shouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/auth/keys/rotate"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void me_withExpiredJwtCookie_shouldBeRejectedAndCounted() throws Exception {
+        // GIVEN
+        JwtKeyService.KeyRing keyRing = jwtKeyService.current();
+        String expired = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.signingKeyId())
+                .setSubject("user123")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(keyRing.signingKey(), SignatureAlgorithm.HS512)
+                .compact();
+        double expiredBefore = meterRegistry.counter("owod.jwt.validations", "outcome", "expired").count();
+
+        // WHEN & THEN
+        mockMvc.perform(get("/auth/me").cookie(new Cookie("jwt", expired)))
+                .andExpect(status().is4xxClientError());
+        assertEquals(JwtUtils.TokenValidation.Status.EXPIRED, jwtUtils.validate(expired).status());
+        assertEquals(JwtUtils.TokenValidation.Status.INVALID, jwtUtils.validate("not.a.token").status());
+        assertEquals(expiredBefore + 2, meterRegistry.counter("owod.jwt.validations", "outcome", "expired").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void validate_shouldNotKeepRawTokensInTheCache() {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        String token = jwtUtils.generateToken(user);
+
+        // WHEN
+        assertTrue(jwtUtils.validate(token).isValid());
+
+        // THEN : le cache est indexé par l'empreinte du token, pas par le token lui-même
+        Cache<String, ?> claimsCache = (Cache<String, ?>) ReflectionTestUtils.getField(jwtUtils, "claimsCache");
+        assertFalse(claimsCache.asMap().containsKey(token));
+        assertTrue(claimsCache.asMap().keySet().stream().allMatch(key -> key.matches("[0-9a-f]{64}")));
+        assertTrue(jwtUtils.validate(token).isValid());
+    }
+
+    @Test
+    void anonymousPublicEndpoint_shouldSkipJwtProcessing() throws Exception {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        user.setEmail("test@mail.com");
+        user.setRoles(Set.of(Role.USER));
+        mongoTemplate.save(user);
+        Cookie cookie = new Cookie("jwt", jwtUtils.generateToken(user));
+        double skippedBefore = meterRegistry.counter("owod.jwt.filter.requests", "outcome", "skipped").count();
+        double filteredBefore = meterRegistry.counter("owod.jwt.filter.requests", "outcome", "filtered").count();
+        double validBefore = meterRegistry.counter("owod.jwt.validations", "outcome", "valid").count();
+
+        // WHEN
+        mockMvc.perform(get("/designers/all").cookie(cookie));
+        mockMvc.perform(get("/auth/me").cookie(cookie))
+                .andExpect(status().isOk());
+
+        // THEN
+        assertEquals(skippedBefore + 1, meterRegistry.counter("owod.jwt.filter.requests", "outcome", "skipped").count());
+        assertEquals(filteredBefore + 1, meterRegistry.counter("owod.jwt.filter.requests", "outcome", "filtered").count());
+        assertEquals(validBefore + 1, meterRegistry.counter("owod.jwt.validations", "outcome", "valid").count());
+    }
+
+    @Test
+    void login_afterTooManyFailures_shouldReturnTooManyRequests() throws Exception {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        user.setEmail("throttled@mail.com");
+        user.setRoles(Set.of(Role.USER));
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        mongoTemplate.save(user);
+
+        // IP dédiée pour ne pas compter les échecs des autres tests
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/auth/login")
+                            .with(request -> {
+                                request.setRemoteAddr("10.0.0.17");
+                                return request;
+                            })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\": \"throttled@mail.com\", \"password\": \"wrong\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // WHEN & THEN : même le bon mot de passe est refusé, sans être vérifié
+        mockMvc.perform(post("/auth/login")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.18");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"THROTTLED@mail.com\", \"password\": \"password123\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(cookie().doesNotExist("jwt"));
+    }
+
+    @Test
+    void login_behindProxy_shouldThrottleTheForwardedClientAddress() {
+        // GIVEN : 20 échecs relayés par le proxy local pour un même client, qui tente de falsifier l'en-tête
+        for (int i = 0; i < 20; i++) {
+            HttpStatusCode status = forwardedLogin("198.51.100." + i + ", 203.0.113.5", "spoof" + i + "@mail.com");
+            assertEquals(HttpStatus.UNAUTHORIZED, status);
+        }
+
+        // WHEN & THEN : le client est bloqué, pas les autres clients derrière le même proxy
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, forwardedLogin("198.51.100.99, 203.0.113.5", "other@mail.com"));
+        assertEquals(HttpStatus.UNAUTHORIZED, forwardedLogin("203.0.113.6", "other@mail.com"));
+    }
+
+    private HttpStatusCode forwardedLogin(String forwardedFor, String email) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        String body = "{\"email\": \"" + email + "\", \"password\": \"wrong\"}";
+        return restTemplate.postForEntity("/auth/login", new HttpEntity<>(body, headers), String.class).getStatusCode();
+    }
+
+    @Test
+    void login_withUnknownEmail_shouldAnswerLikeAWrongPassword() throws Exception {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        user.setEmail("test@mail.com");
+        user.setRoles(Set.of(Role.USER));
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        mongoTemplate.save(user);
+        registeredEmailService.reload();
+
+        // WHEN & THEN : même statut et même message, que l'email existe ou non
+        mockMvc.perform(post("/auth/login")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.19");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"unknown@mail.com\", \"password\": \"password123\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Incorrect email or password"));
+
+        mockMvc.perform(post("/auth/login")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.19");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"test@mail.com\", \"password\": \"wrong\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Incorrect email or password"));
+    }
+
+    @Test
+    void login_rightAfterRegister_shouldSucceed() throws Exception {
+        // GIVEN : l'inscription ajoute l'email au filtre, sans rechargement
+        registeredEmailService.reload();
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "email": "new@mail.com",
+                            "password": "password123",
+                            "firstname": "New",
+                            "lastname": "User"
+                        }
+                        """))
+                .andExpect(status().isOk());
+
+        // WHEN & THEN
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"new@mail.com\", \"password\": \"password123\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists("jwt"));
+    }
+}
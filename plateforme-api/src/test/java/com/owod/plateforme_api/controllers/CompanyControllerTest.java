@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.owod.plateforme_api.configuration.TestSecurityConfig;
 import com.owod.plateforme_api.models.dtos.CompanyDTO;
 import com.owod.plateforme_api.models.entities.Company;
+import com.owod.plateforme_api.models.entities.ImageRenditions;
 import com.owod.plateforme_api.models.entities.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,7 +19,11 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -201,6 +206,40 @@ public class CompanyControllerTest {
 
     }
 
+    @Test
+    @WithMockUser(username = "alice")
+    void newCompany_shouldKeepImageRenditions() throws Exception {
+        var u = new User(); u.setUserId("alice"); u.setEmail("alice@ex.com");
+        mongo.save(u, "users");
+
+        var body = new CompanyDTO();
+        body.setRaisonSociale("ACME");
+        body.setLogoUrl("http://fake.local/logo.png");
+        body.setLogoRenditions(new ImageRenditions("http://fake.local/logo.png",
+                Map.of("thumb", "http://fake.local/logo-thumb.jpg")));
+        body.setTeamPhotoRenditions(new ImageRenditions("http://fake.local/team.png", Map.of()));
+        body.setWorksRenditions(List.of(new ImageRenditions("http://fake.local/work.png",
+                Map.of("card", "http://fake.local/work-card.jpg"))));
+
+        var mvcRes = mockMvc.perform(
+                        post("/company/new")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsBytes(body))
+                )
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.logoRenditions.urls.thumb").value("http://fake.local/logo-thumb.jpg"))
+                .andReturn();
+
+        // Les déclinaisons sont bien enregistrées avec la company
+        String createdId = objectMapper
+                .readTree(mvcRes.getResponse().getContentAsByteArray())
+                .get("id").asText();
+        Company saved = mongo.findById(createdId, Company.class);
+        assertEquals("http://fake.local/logo-thumb.jpg", saved.getLogoRenditions().getUrls().get("thumb"));
+        assertEquals("http://fake.local/team.png", saved.getTeamPhotoRenditions().getOriginal());
+        assertEquals("http://fake.local/work-card.jpg", saved.getWorksRenditions().get(0).getUrls().get("card"));
+    }
+
     @Test
     @WithMockUser(username = "ghost")
     void newCompany_userNotFound_returns400() throws Exception {
@@ -2,7 +2,15 @@ package com.owod.plateforme_api.controllers;
 
 import com.owod.plateforme_api.configuration.TestSecurityConfig;
 import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import com.owod.plateforme_api.models.entities.ImageRenditions;
+import com.owod.plateforme_api.models.entities.Role;
 import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.services.DesignerFacetService;
+import com.owod.plateforme_api.services.DesignerTextIndexService;
+import com.owod.plateforme_api.utils.JwtUtils;
+import jakarta.servlet.http.Cookie;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,14 +18,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,10 +51,21 @@ class DesignerControllerIntegrationTest {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private DesignerFacetService designerFacetService;
+
+    @Autowired
+    private DesignerTextIndexService designerTextIndexService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
     @BeforeEach
     void setup() {
         mongoTemplate.dropCollection("designers"); // Réinitialise la collection pour chaque test
         mongoTemplate.dropCollection("users");
+        mongoTemplate.dropCollection("designer_events");
+        mongoTemplate.dropCollection("image_references");
     }
 
     @Test
@@ -62,6 +91,252 @@ class DesignerControllerIntegrationTest {
                 .andExpect(jsonPath("$[1].firstname").value("Jane"));
     }
 
+    @Test
+    @WithMockUser
+    void getDesigners_shouldReturnRequestedPageWithTotals() throws Exception {
+        // GIVEN
+        for (String name : List.of("Alice", "Bob", "Carl", "Dana", "Eve")) {
+            Designer designer = new Designer();
+            designer.setId(name.toLowerCase());
+            designer.setLastname(name);
+            designer.setBiography("Biography of " + name);
+            mongoTemplate.save(designer);
+        }
+
+        // WHEN & THEN
+        mockMvc.perform(get("/designers")
+                        .param("page", "1")
+                        .param("size", "2")
+                        .param("sort", "lastname,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].lastname").value("Carl"))
+                .andExpect(jsonPath("$.content[1].lastname").value("Bob"))
+                .andExpect(jsonPath("$.content[0].biography").doesNotExist())
+                .andExpect(jsonPath("$.content[0].events").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(5))
+                .andExpect(jsonPath("$.totalPages").value(3));
+    }
+
+    @Test
+    @WithMockUser
+    void getDesigners_withCursor_shouldReturnNextPageAndCursor() throws Exception {
+        // GIVEN
+        for (String id : List.of("a", "b", "c")) {
+            Designer designer = new Designer();
+            designer.setId(id);
+            mongoTemplate.save(designer);
+        }
+
+        // WHEN & THEN
+        mockMvc.perform(get("/designers").param("cursor", "").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("b"));
+
+        mockMvc.perform(get("/designers").param("cursor", "b").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value("c"))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser
+    void getDesigners_withFilters_shouldCombineThemWithAnd() throws Exception {
+        // GIVEN
+        Designer designer1 = new Designer();
+        designer1.setLastname("Bob");
+        designer1.setProfession("designer");
+        designer1.setSpecialties(List.of("Specialty1", "Specialty2"));
+        designer1.setCountryOfResidence("France");
+        mongoTemplate.save(designer1);
+
+        Designer designer2 = new Designer();
+        designer2.setLastname("John");
+        designer2.setProfession("designer");
+        designer2.setSpecialties(List.of("Specialty1"));
+        designer2.setCountryOfResidence("Sénégal");
+        mongoTemplate.save(designer2);
+
+        Designer designer3 = new Designer();
+        designer3.setLastname("James");
+        designer3.setProfession("artisan");
+        designer3.setSpecialties(List.of("Specialty1"));
+        designer3.setCountryOfResidence("France");
+        mongoTemplate.save(designer3);
+
+        // WHEN & THEN
+        mockMvc.perform(get("/designers")
+                        .param("profession", "designer")
+                        .param("specialty", "Specialty1")
+                        .param("country", "France"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].lastname").value("Bob"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    @WithMockUser
+    void getDesigners_withUnknownSortField_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/designers").param("sort", "biography"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void searchDesigners_shouldRankNameMatchesBeforeBiographyMatches() throws Exception {
+        // GIVEN
+        Designer designer1 = new Designer();
+        designer1.setId("designer1");
+        designer1.setLastname("Dupont");
+        designer1.setBiography("Formée au Bénin par Hélène Mercier");
+        mongoTemplate.save(designer1);
+
+        Designer designer2 = new Designer();
+        designer2.setId("designer2");
+        designer2.setFirstname("Hélène");
+        designer2.setLastname("Mercier");
+        designer2.setProfession("Styliste");
+        mongoTemplate.save(designer2);
+
+        Designer designer3 = new Designer();
+        designer3.setId("designer3");
+        designer3.setLastname("Martin");
+        mongoTemplate.save(designer3);
+
+        designerTextIndexService.reload();
+
+        // WHEN & THEN
+        mockMvc.perform(get("/designers/search").param("q", "helene merc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value("designer2"))
+                .andExpect(jsonPath("$.content[0].profession").value("Styliste"))
+                .andExpect(jsonPath("$.content[1].id").value("designer1"))
+                .andExpect(jsonPath("$.content[0].biography").doesNotExist());
+
+        mockMvc.perform(get("/designers/search").param("q", "helene").param("size", "1").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value("designer1"));
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void searchDesigners_shouldFindUpdatedDesigners() throws Exception {
+        // GIVEN
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setLastname("Dupont");
+        mongoTemplate.save(designer);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        mongoTemplate.save(user);
+
+        designerTextIndexService.reload();
+
+        // WHEN
+        mockMvc.perform(put("/designers/designer123/update-fields")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "lastname": "Durand"
+                        }
+                        """))
+                .andExpect(status().isOk());
+
+        // THEN
+        mockMvc.perform(get("/designers/search").param("q", "durand"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("designer123"));
+        mockMvc.perform(get("/designers/search").param("q", "dupont"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    @WithMockUser
+    void searchDesigners_withPageBeyondIntRange_shouldReturnEmptyPage() throws Exception {
+        // GIVEN
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setLastname("Dupont");
+        mongoTemplate.save(designer);
+        designerTextIndexService.reload();
+
+        // WHEN & THEN : page * size dépasse Integer.MAX_VALUE
+        mockMvc.perform(get("/designers/search").param("q", "dupont")
+                        .param("page", String.valueOf(Integer.MAX_VALUE)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content.length()").value(0));
+    }
+
+    @Test
+    @WithMockUser
+    void searchDesigners_withBlankText_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/designers/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void getFacets_shouldCountValuesAndFollowUpdates() throws Exception {
+        // GIVEN
+        Designer designer1 = new Designer();
+        designer1.setId("designer123");
+        designer1.setProfession("designer");
+        designer1.setSpecialties(List.of("Specialty1", "Specialty2"));
+        designer1.setCountryOfResidence("France");
+        mongoTemplate.save(designer1);
+
+        Designer designer2 = new Designer();
+        designer2.setProfession("artisan");
+        designer2.setSpecialties(List.of("Specialty1"));
+        designer2.setCountryOfResidence("France");
+        mongoTemplate.save(designer2);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        mongoTemplate.save(user);
+
+        designerFacetService.reload();
+
+        // WHEN & THEN
+        mockMvc.perform(get("/designers/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.specialties[0].value").value("Specialty1"))
+                .andExpect(jsonPath("$.specialties[0].count").value(2))
+                .andExpect(jsonPath("$.specialties[1].value").value("Specialty2"))
+                .andExpect(jsonPath("$.countries[0].count").value(2))
+                .andExpect(jsonPath("$.professions.length()").value(2));
+
+        mockMvc.perform(put("/designers/designer123/update-fields")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "profession": "designer",
+                            "specialties": ["Specialty3"],
+                            "countryOfResidence": "Bénin"
+                        }
+                        """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/designers/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.specialties.length()").value(2))
+                .andExpect(jsonPath("$.specialties[0].value").value("Specialty1"))
+                .andExpect(jsonPath("$.specialties[0].count").value(1))
+                .andExpect(jsonPath("$.specialties[1].value").value("Specialty3"))
+                .andExpect(jsonPath("$.countries.length()").value(2));
+    }
+
     @Test
     @WithMockUser
     void getDesignerByUserId_shouldReturnDesigner() throws Exception {
@@ -133,11 +408,13 @@ class DesignerControllerIntegrationTest {
     """;
 
         // WHEN & THEN
-        mockMvc.perform(post("/designers/new")
+        MvcResult result = mockMvc.perform(post("/designers/new")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(designerJson))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.firstname").value("Jane"));
+                .andExpect(jsonPath("$.firstname").value("Jane"))
+                .andExpect(cookie().exists("jwt"))
+                .andReturn();
 
         List<Designer> savedDesigners = mongoTemplate.findAll(Designer.class);
         assertEquals("Jane", savedDesigners.getFirst().getFirstname());
@@ -146,6 +423,41 @@ class DesignerControllerIntegrationTest {
 
         List<User> savedUsers = mongoTemplate.findAll(User.class);
         assertEquals(newDesignerId, savedUsers.getFirst().getDesignerId());
+        assertEquals(newDesignerId, jwtUtils.parse(result.getResponse().getCookie("jwt").getValue()).designerId());
+    }
+
+    @Test
+    void updateDesignerFields_withOwnershipClaim_shouldNotNeedTheUserDocument() throws Exception {
+        // GIVEN
+        Designer existingDesigner = new Designer();
+        existingDesigner.setId("designer123");
+        existingDesigner.setFirstname("OldFirstName");
+        mongoTemplate.save(existingDesigner);
+
+        // Utilisateur absent de la base : seule la claim du token prouve la propriété
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        user.setRoles(Set.of(Role.USER));
+        Cookie cookie = new Cookie("jwt", jwtUtils.generateToken(user));
+
+        // WHEN & THEN
+        mockMvc.perform(put("/designers/designer123/update-fields")
+                        .cookie(cookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "firstname": "NewFirstName"
+                        }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstname").value("NewFirstName"));
+
+        mockMvc.perform(put("/designers/designer456/update-fields")
+                        .cookie(cookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
     }
 
     @Test
@@ -237,5 +549,279 @@ class DesignerControllerIntegrationTest {
                 .andExpect(jsonPath("$.majorWorks[0]").value("http://example.com/work2.jpg"));
     }
 
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void deleteMajorWork_shouldReleaseImageReference() throws Exception {
+        // GIVEN : work1 est partagée avec un autre designer, work2 n'est utilisée qu'ici
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setMajorWorks(List.of("http://example.com/work1.jpg", "http://example.com/work2.jpg"));
+        mongoTemplate.save(designer);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        mongoTemplate.save(user);
+
+        mongoTemplate.save(new Document("_id", "http://example.com/work1.jpg").append("count", 2L), "image_references");
+        mongoTemplate.save(new Document("_id", "http://example.com/work2.jpg").append("count", 1L), "image_references");
+
+        // WHEN
+        mockMvc.perform(delete("/designers/designer123/delete-major-work")
+                        .param("url", "http://example.com/work1.jpg"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/designers/designer123/delete-major-work")
+                        .param("url", "http://example.com/work2.jpg"))
+                .andExpect(status().isOk());
+
+        // THEN : work1 reste référencée une fois, work2 n'est plus référencée
+        Document work1 = mongoTemplate.findById("http://example.com/work1.jpg", Document.class, "image_references");
+        assertEquals(1L, ((Number) work1.get("count")).longValue());
+        assertNull(mongoTemplate.findById("http://example.com/work2.jpg", Document.class, "image_references"));
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void deleteMajorWork_whenSameImageListedTwice_shouldKeepTheOtherOccurrence() throws Exception {
+        // GIVEN : la même image envoyée deux fois, comptée deux fois
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setMajorWorks(List.of("http://example.com/work1.jpg", "http://example.com/work1.jpg"));
+        designer.setMajorWorksRenditions(new ArrayList<>(List.of(
+                new ImageRenditions("http://example.com/work1.jpg", Map.of("thumb", "http://example.com/work1_thumb.jpg")),
+                new ImageRenditions("http://example.com/work1.jpg", Map.of("thumb", "http://example.com/work1_thumb.jpg")))));
+        mongoTemplate.save(designer);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        mongoTemplate.save(user);
+
+        mongoTemplate.save(new Document("_id", "http://example.com/work1.jpg").append("count", 2L), "image_references");
+
+        // WHEN
+        mockMvc.perform(delete("/designers/designer123/delete-major-work")
+                        .param("url", "http://example.com/work1.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.majorWorks.length()").value(1))
+                .andExpect(jsonPath("$.majorWorksRenditions.length()").value(1));
+
+        // THEN : l'occurrence restante garde ses déclinaisons et sa référence
+        Document work1 = mongoTemplate.findById("http://example.com/work1.jpg", Document.class, "image_references");
+        assertEquals(1L, ((Number) work1.get("count")).longValue());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void addEvent_shouldPushEventAndReturnIt() throws Exception {
+        // GIVEN
+        saveDesignerWithEvent();
+
+        // WHEN & THEN
+        mockMvc.perform(post("/designers/events/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "title": "Salon",
+                            "startDate": "2026-11-02"
+                        }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNotEmpty())
+                .andExpect(jsonPath("$.title").value("Salon"))
+                .andExpect(jsonPath("$.biography").doesNotExist());
+
+        assertEquals(2, mongoTemplate.count(Query.query(Criteria.where("designerId").is("designer123")), DesignerEvent.class));
+        assertEquals("Biographie modifiée ailleurs", mongoTemplate.findById("designer123", Designer.class).getBiography());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void addEvent_withSameClientIdForTwoDesigners_shouldGenerateDistinctIds() throws Exception {
+        // GIVEN : deux designers dont le calendrier envoie le même identifiant
+        saveDesignerWithEvent();
+        Designer other = new Designer();
+        other.setId("designer456");
+        mongoTemplate.save(other);
+        User otherUser = new User();
+        otherUser.setUserId("user456");
+        otherUser.setDesignerId("designer456");
+        mongoTemplate.save(otherUser);
+        String event = """
+                {
+                    "id": "event1",
+                    "title": "Salon",
+                    "startDate": "2026-11-02"
+                }
+                """;
+
+        // WHEN
+        mockMvc.perform(post("/designers/events/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(event))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(not("event1")));
+        mockMvc.perform(post("/designers/events/add")
+                        .with(user("user456").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(event))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(not("event1")));
+
+        // THEN : l'événement existant n'est pas écrasé, chaque designer a le sien
+        assertEquals("Atelier", mongoTemplate.findById("event1", DesignerEvent.class).getTitle());
+        assertEquals(2, mongoTemplate.count(Query.query(Criteria.where("designerId").is("designer123")), DesignerEvent.class));
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("designerId").is("designer456")), DesignerEvent.class));
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void modifyEvent_shouldOnlySetTheMatchingEvent() throws Exception {
+        // GIVEN
+        saveDesignerWithEvent();
+
+        // WHEN & THEN
+        mockMvc.perform(post("/designers/events/modify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "id": "event1",
+                            "title": "Exposition",
+                            "description": "Nouvelle description",
+                            "startDate": "2026-12-01",
+                            "endDate": "2026-12-03"
+                        }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("event1"))
+                .andExpect(jsonPath("$.title").value("Exposition"))
+                .andExpect(jsonPath("$.color").value("#ff0000"));
+
+        assertEquals("Exposition", mongoTemplate.findById("event1", DesignerEvent.class).getTitle());
+        assertEquals("Biographie modifiée ailleurs", mongoTemplate.findById("designer123", Designer.class).getBiography());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void deleteEvent_shouldPullEventAndReturnIt() throws Exception {
+        // GIVEN
+        saveDesignerWithEvent();
+
+        // WHEN & THEN
+        mockMvc.perform(post("/designers/events/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "id": "event1"
+                        }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Atelier"));
+
+        assertNull(mongoTemplate.findById("event1", DesignerEvent.class));
+        assertEquals("Biographie modifiée ailleurs", mongoTemplate.findById("designer123", Designer.class).getBiography());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void modifyEvent_withUnknownEvent_shouldFail() {
+        // GIVEN
+        saveDesignerWithEvent();
+
+        // WHEN & THEN
+        Exception exception = assertThrows(Exception.class, () -> mockMvc.perform(post("/designers/events/modify")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "id": "unknown",
+                    "title": "Exposition"
+                }
+                """)));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    @WithMockUser
+    void getEvents_shouldOnlyReturnEventsOverlappingTheRange() throws Exception {
+        // GIVEN
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        mongoTemplate.save(designer);
+        mongoTemplate.insertAll(List.of(
+                event("before", LocalDate.of(2026, 9, 10), LocalDate.of(2026, 9, 12)),
+                event("overlapping", LocalDate.of(2026, 9, 28), LocalDate.of(2026, 10, 2)),
+                event("single-day", LocalDate.of(2026, 10, 15), null),
+                event("inside", LocalDate.of(2026, 10, 5), LocalDate.of(2026, 10, 6)),
+                event("after", LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 3)),
+                event("other-designer", LocalDate.of(2026, 10, 10), null, "designer456")
+        ));
 
-}
\ No newline at end of file
+        // WHEN & THEN
+        mockMvc.perform(get("/designers/designer123/events")
+                        .param("from", "2026-10-01")
+                        .param("to", "2026-10-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value("overlapping"))
+                .andExpect(jsonPath("$[1].id").value("inside"))
+                .andExpect(jsonPath("$[2].id").value("single-day"));
+    }
+
+    @Test
+    @WithMockUser
+    void getEvents_withUnknownDesigner_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/designers/unknown/events")
+                        .param("from", "2026-10-01")
+                        .param("to", "2026-10-31"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void getEvents_withInvertedRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/designers/designer123/events")
+                        .param("from", "2026-10-31")
+                        .param("to", "2026-10-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private DesignerEvent event(String id, LocalDate startDate, LocalDate endDate) {
+        return event(id, startDate, endDate, "designer123");
+    }
+
+    private DesignerEvent event(String id, LocalDate startDate, LocalDate endDate, String designerId) {
+        DesignerEvent event = new DesignerEvent();
+        event.setId(id);
+        event.setDesignerId(designerId);
+        event.setTitle(id);
+        event.setStartDate(startDate);
+        event.setEndDate(endDate);
+        return event;
+    }
+
+    /**
+     * Saves designer123 owned by user123 with one event, then changes its biography directly
+     * in the database to detect any event operation rewriting the designer document.
+     */
+    private void saveDesignerWithEvent() {
+        DesignerEvent event = new DesignerEvent();
+        event.setId("event1");
+        event.setTitle("Atelier");
+        event.setColor("#ff0000");
+        event.setDesignerId("designer123");
+        mongoTemplate.save(event);
+
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setBiography("Biographie");
+        mongoTemplate.save(designer);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        mongoTemplate.save(user);
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is("designer123")),
+                Update.update("biography", "Biographie modifiée ailleurs"), Designer.class);
+    }
+}
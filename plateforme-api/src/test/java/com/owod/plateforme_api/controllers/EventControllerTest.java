@@ -0,0 +1,89 @@
+package com.owod.plateforme_api.controllers;
+
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.DesignerEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designer_events");
+    }
+
+    @Test
+    @WithMockUser
+    void getUpcomingEvents_shouldPageAllDesignersInDateOrder() throws Exception {
+        // GIVEN
+        mongoTemplate.insertAll(List.of(
+                event("past", "designer1", LocalDate.of(2026, 9, 30)),
+                event("b", "designer2", LocalDate.of(2026, 10, 1)),
+                event("a", "designer1", LocalDate.of(2026, 10, 1)),
+                event("c", "designer1", LocalDate.of(2026, 10, 20))
+        ));
+
+        // WHEN & THEN
+        mockMvc.perform(get("/events/upcoming")
+                        .param("from", "2026-10-01")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value("a"))
+                .andExpect(jsonPath("$.content[1].id").value("b"))
+                .andExpect(jsonPath("$.content[1].designerId").value("designer2"))
+                .andExpect(jsonPath("$.nextCursor").value("2026-10-01_b"));
+
+        mockMvc.perform(get("/events/upcoming")
+                        .param("from", "2026-10-01")
+                        .param("cursor", "2026-10-01_b")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value("c"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getUpcomingEvents_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/events/upcoming")
+                        .param("cursor", "not-a-date_a"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(startsWith("Error retrieving events: ")));
+    }
+
+    private DesignerEvent event(String id, String designerId, LocalDate startDate) {
+        DesignerEvent event = new DesignerEvent();
+        event.setId(id);
+        event.setDesignerId(designerId);
+        event.setTitle(id);
+        event.setStartDate(startDate);
+        return event;
+    }
+}
@@ -0,0 +1,155 @@
+package com.owod.plateforme_api.controllers;
+
+import com.owod.plateforme_api.configuration.MongoCommandCounter;
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.Role;
+import com.owod.plateforme_api.models.entities.User;
+import com.owod.plateforme_api.utils.JwtUtils;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Vérifie le nombre de commandes MongoDB envoyées par endpoint :
+ * l'utilisateur courant ne doit être lu qu'une fois par requête.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TestSecurityConfig.class, MongoCommandCounter.class})
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designers");
+        mongoTemplate.dropCollection("users");
+        mongoTemplate.dropCollection("designer_events");
+
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setFirstname("John");
+        mongoTemplate.save(designer);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setEmail("user123@example.com");
+        user.setDesignerId("designer123");
+        mongoTemplate.save(user);
+
+        mongoCommandCounter.reset();
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void updateDesignerFields_shouldReadTheUserOnce() throws Exception {
+        // WHEN
+        mockMvc.perform(put("/designers/designer123/update-fields")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstname\": \"Jane\"}"))
+                .andExpect(status().isOk());
+
+        // THEN
+        assertEquals(1, mongoCommandCounter.count("users"), mongoCommandCounter.commands().toString());
+        assertTrue(mongoCommandCounter.commands().size() <= 4, mongoCommandCounter.commands().toString());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void deleteDesigner_shouldReadTheUserOnce() throws Exception {
+        // WHEN
+        mockMvc.perform(delete("/designers/delete/user123/designer123"))
+                .andExpect(status().isOk());
+
+        // THEN : une lecture et une écriture de l'utilisateur
+        assertEquals(1, mongoCommandCounter.commands().stream().filter("find:users"::equals).count(),
+                mongoCommandCounter.commands().toString());
+        assertEquals(2, mongoCommandCounter.count("users"), mongoCommandCounter.commands().toString());
+        assertTrue(mongoCommandCounter.commands().size() <= 6, mongoCommandCounter.commands().toString());
+    }
+
+    @Test
+    void addEvent_withDesignerClaim_shouldNotReadTheUser() throws Exception {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user123");
+        user.setDesignerId("designer123");
+        user.setRoles(Set.of(Role.USER));
+        Cookie cookie = new Cookie("jwt", jwtUtils.generateToken(user));
+        mongoCommandCounter.reset();
+
+        // WHEN
+        mockMvc.perform(post("/designers/events/add")
+                        .cookie(cookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "title": "Salon",
+                            "startDate": "2030-01-10"
+                        }
+                        """))
+                .andExpect(status().isOk());
+
+        // THEN : vérification du designer puis insertion de l'événement
+        assertEquals(0, mongoCommandCounter.count("users"), mongoCommandCounter.commands().toString());
+        assertTrue(mongoCommandCounter.commands().size() <= 2, mongoCommandCounter.commands().toString());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void addEvent_withoutDesignerClaim_shouldReadTheUserOnce() throws Exception {
+        // WHEN
+        mockMvc.perform(post("/designers/events/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "title": "Salon",
+                            "startDate": "2030-01-10"
+                        }
+                        """))
+                .andExpect(status().isOk());
+
+        // THEN
+        assertEquals(1, mongoCommandCounter.count("users"), mongoCommandCounter.commands().toString());
+        assertTrue(mongoCommandCounter.commands().size() <= 3, mongoCommandCounter.commands().toString());
+    }
+
+    @Test
+    @WithMockUser(username = "user123", roles = "USER")
+    void me_shouldReadTheUserOnce() throws Exception {
+        // WHEN
+        mockMvc.perform(get("/auth/me"))
+                .andExpect(status().isOk());
+
+        // THEN
+        assertEquals(1, mongoCommandCounter.count("users"), mongoCommandCounter.commands().toString());
+        assertTrue(mongoCommandCounter.commands().size() <= 1, mongoCommandCounter.commands().toString());
+    }
+}
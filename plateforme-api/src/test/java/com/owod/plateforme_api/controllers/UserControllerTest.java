@@ -2,6 +2,7 @@ package com.owod.plateforme_api.controllers;
 
 import com.owod.plateforme_api.configuration.TestSecurityConfig;
 import com.owod.plateforme_api.models.entities.AccountType;
+import com.owod.plateforme_api.models.entities.Designer;
 import com.owod.plateforme_api.models.entities.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,11 +11,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +39,7 @@ class UserControllerTest {
     @BeforeEach
     void setup() {
         mongoTemplate.dropCollection("users");
+        mongoTemplate.dropCollection("designers");
     }
 
     @Test
@@ -94,4 +101,80 @@ class UserControllerTest {
         mockMvc.perform(get("/users/user123"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "user123")
+    void getFriends_shouldReturnAllFriends() throws Exception {
+        // GIVEN
+        saveUserWithFriends("Martin", "Dupont", "Bernard");
+
+        // WHEN & THEN
+        mockMvc.perform(get("/users/friends"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].email").exists());
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void getFriendsPage_shouldReturnSummariesSortedById() throws Exception {
+        // GIVEN
+        saveUserWithFriends("Martin", "Dupont", "Bernard");
+
+        // WHEN & THEN
+        mockMvc.perform(get("/users/friends").param("page", "0").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value("friend1"))
+                .andExpect(jsonPath("$.content[1].id").value("friend2"))
+                .andExpect(jsonPath("$.content[0].email").doesNotExist());
+
+        mockMvc.perform(get("/users/friends").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].lastname").value("Bernard"));
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void getFriendsPage_withDeletedFriend_shouldCountItInTheUpperBoundTotal() throws Exception {
+        // GIVEN : un des designers suivis a été supprimé
+        saveUserWithFriends("Martin", "Dupont", "Bernard");
+        mongoTemplate.remove(new Query(Criteria.where("_id").is("friend1")), Designer.class);
+
+        // WHEN & THEN : le total reste celui de la liste, la page contient une fiche de moins
+        mockMvc.perform(get("/users/friends").param("page", "0").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value("friend2"));
+    }
+
+    @Test
+    @WithMockUser(username = "user123")
+    void getFriendsPage_withNegativePage_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users/friends").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void saveUserWithFriends(String... lastnames) {
+        Set<String> friendsId = new HashSet<>();
+        for (int i = 0; i < lastnames.length; i++) {
+            Designer designer = new Designer();
+            designer.setId("friend" + (i + 1));
+            designer.setLastname(lastnames[i]);
+            designer.setEmail(lastnames[i].toLowerCase() + "@mail.com");
+            friendsId.add(mongoTemplate.save(designer).getId());
+        }
+        Designer stranger = new Designer();
+        stranger.setLastname("Adjovi");
+        mongoTemplate.save(stranger);
+
+        User user = new User();
+        user.setUserId("user123");
+        user.setFriendsId(friendsId);
+        mongoTemplate.save(user);
+    }
+}
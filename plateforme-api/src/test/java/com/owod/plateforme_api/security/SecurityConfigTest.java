@@ -0,0 +1,31 @@
+package com.owod.plateforme_api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    @Test
+    void anonymousEndpoints_shouldAllBePublic() {
+        AntPathMatcher pathMatcher = new AntPathMatcher();
+
+        for (RequestMatcher matcher : SecurityConfig.ANONYMOUS_ENDPOINTS) {
+            // GIVEN : un chemin concret couvert par l'endpoint anonyme
+            String pattern = ((AntPathRequestMatcher) matcher).getPattern();
+            String path = pattern.replace("**", "a/b").replace("*", "a");
+
+            // WHEN
+            boolean isPublic = Arrays.stream(SecurityConfig.PUBLIC_ENDPOINTS)
+                    .anyMatch(publicPattern -> pathMatcher.match(publicPattern, path));
+
+            // THEN : un endpoint qui ignore le token doit être ouvert à tous, sinon il serait refusé
+            assertTrue(isPublic, pattern + " skips the JWT but is not in PUBLIC_ENDPOINTS");
+        }
+    }
+}
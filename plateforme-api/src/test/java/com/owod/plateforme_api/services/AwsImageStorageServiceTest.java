@@ -0,0 +1,488 @@
+package com.owod.plateforme_api.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AwsImageStorageServiceTest {
+
+    private HttpServer server;
+    private S3Client s3Client;
+    private AwsImageStorageService storageService;
+
+    // Objets stockés par le faux S3, par clé
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    // Parties des uploads multipart en cours, par identifiant d'upload
+    private final Map<String, TreeMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    // Opérations reçues, dans l'ordre
+    private final List<String> operations = new CopyOnWriteArrayList<>();
+    private volatile Integer failingPart;
+    // Taille du fichier dont le PutObject est refusé
+    private volatile Integer failingSize;
+    // Latence de chaque PutObject, en millisecondes
+    private volatile long putDelayMs;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        s3Client = S3Client.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .forcePathStyle(true)
+                .region(Region.EU_WEST_3)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+
+        storageService = new AwsImageStorageService();
+        ReflectionTestUtils.setField(storageService, "s3Client", s3Client);
+        ReflectionTestUtils.setField(storageService, "bucketName", "owod-images");
+        ReflectionTestUtils.setField(storageService, "region", "eu-west-3");
+        ReflectionTestUtils.setField(storageService, "multipartThreshold", 100_000L);
+        ReflectionTestUtils.setField(storageService, "partSize", 64_000L);
+        ReflectionTestUtils.setField(storageService, "uploadConcurrency", 4);
+        storageService.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdownExecutor();
+        s3Client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void uploadImage_shouldStreamSmallFileWithSinglePut() throws IOException {
+        // GIVEN
+        byte[] content = randomBytes(20_000);
+        MockMultipartFile file = new StreamOnlyMultipartFile("small.png", content);
+
+        // WHEN
+        String url = storageService.uploadImage(file);
+
+        // THEN
+        String key = url.substring(url.lastIndexOf('/') + 1);
+        assertTrue(url.startsWith("https://owod-images.s3.eu-west-3.amazonaws.com/"));
+        assertArrayEquals(content, objects.get(key));
+        assertEquals(List.of("HEAD", "PUT"), operations);
+        assertFalse(Files.exists(Path.of("small.png"))); // plus de fichier temporaire
+    }
+
+    @Test
+    void uploadImage_shouldSendLargeFileInParts() throws IOException {
+        // GIVEN
+        byte[] content = randomBytes(200_000);
+        MockMultipartFile file = new StreamOnlyMultipartFile("large.png", content);
+
+        // WHEN
+        String url = storageService.uploadImage(file);
+
+        // THEN : 64 000 + 64 000 + 64 000 + 8 000 octets
+        String key = url.substring(url.lastIndexOf('/') + 1);
+        assertArrayEquals(content, objects.get(key));
+        assertEquals(List.of("HEAD", "CREATE", "PART", "PART", "PART", "PART", "COMPLETE"), operations);
+    }
+
+    @Test
+    void uploadImage_whenPartFails_shouldAbortUpload() {
+        // GIVEN
+        failingPart = 2;
+        MockMultipartFile file = new StreamOnlyMultipartFile("large.png", randomBytes(200_000));
+
+        // WHEN & THEN
+        assertThrows(IOException.class, () -> storageService.uploadImage(file));
+        assertEquals(List.of("HEAD", "CREATE", "PART", "PART", "ABORT"), operations);
+        assertTrue(uploads.isEmpty());
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    void uploadImage_whenSameContent_shouldReuseStoredObject() throws IOException {
+        // GIVEN
+        byte[] content = randomBytes(20_000);
+        String first = storageService.uploadImage(new StreamOnlyMultipartFile("photo.png", content));
+
+        // WHEN : même image, renommée
+        String second = storageService.uploadImage(new StreamOnlyMultipartFile("copie de photo.PNG", content));
+
+        // THEN : clé = SHA-256 du contenu, un seul envoi
+        assertEquals(first, second);
+        assertTrue(first.matches("https://owod-images\\.s3\\.eu-west-3\\.amazonaws\\.com/[0-9a-f]{64}\\.png"));
+        assertEquals(List.of("HEAD", "PUT", "HEAD"), operations);
+        assertEquals(1, objects.size());
+    }
+
+    @Test
+    void uploadImage_whenSameImageWithOtherExtension_shouldReuseStoredObject() throws IOException {
+        // GIVEN : une même photo JPEG envoyée en .jpg puis en .jpeg
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        String first = storageService.uploadImage(new StreamOnlyMultipartFile("photo.jpg", out.toByteArray()));
+
+        // WHEN
+        String second = storageService.uploadImage(new StreamOnlyMultipartFile("photo.jpeg", out.toByteArray()));
+
+        // THEN : un seul objet, donc un seul compteur de références pour ses déclinaisons
+        assertEquals(first, second);
+        assertTrue(first.endsWith(".jpg"));
+        assertEquals(ImageStorageService.renditionUrl(first, "thumb"),
+                ImageStorageService.renditionUrl(second, "thumb"));
+        assertEquals(1, objects.size());
+    }
+
+    @Test
+    void uploadImages_shouldUploadConcurrently() throws IOException {
+        // GIVEN : client déjà initialisé, puis 4 images à 300 ms par PutObject
+        storageService.uploadImage(new StreamOnlyMultipartFile("warmup.png", randomBytes(100)));
+        objects.clear();
+        putDelayMs = 300;
+        List<MultipartFile> files = List.of(
+                new StreamOnlyMultipartFile("a.png", randomBytes(1_000)),
+                new StreamOnlyMultipartFile("b.png", randomBytes(2_000)),
+                new StreamOnlyMultipartFile("c.png", randomBytes(3_000)),
+                new StreamOnlyMultipartFile("d.png", randomBytes(4_000)));
+
+        // WHEN
+        long start = System.nanoTime();
+        List<String> urls = storageService.uploadImages(files);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // THEN : URLs dans l'ordre des fichiers, en moins de temps que 4 envois successifs
+        assertEquals(4, urls.size());
+        for (int i = 0; i < files.size(); i++) {
+            assertArrayEquals(files.get(i).getInputStream().readAllBytes(),
+                    objects.get(urls.get(i).substring(urls.get(i).lastIndexOf('/') + 1)));
+        }
+        assertTrue(elapsedMs < 1_000, "Batch took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void uploadImages_whenOneFails_shouldReportUploadedImages() {
+        // GIVEN
+        failingSize = 2_000;
+        List<MultipartFile> files = List.of(
+                new StreamOnlyMultipartFile("a.png", randomBytes(1_000)),
+                new StreamOnlyMultipartFile("b.png", randomBytes(2_000)),
+                new StreamOnlyMultipartFile("c.png", randomBytes(3_000)));
+
+        // WHEN
+        ImageStorageService.BatchUploadException e = assertThrows(ImageStorageService.BatchUploadException.class,
+                () -> storageService.uploadImages(files));
+
+        // THEN : les images créées sont signalées, leur suppression dépend des références comptées entre-temps
+        assertEquals(2, e.getCreated().size());
+        assertEquals(objects.keySet(), e.getCreated().stream()
+                .map(url -> url.substring(url.lastIndexOf('/') + 1))
+                .collect(Collectors.toSet()));
+        assertFalse(operations.contains("DELETE"));
+    }
+
+    @Test
+    void uploadImages_whenOneFails_shouldKeepImagesStoredBefore() throws IOException {
+        // GIVEN : a.png est déjà utilisée ailleurs
+        byte[] shared = randomBytes(1_000);
+        String sharedUrl = storageService.uploadImage(new StreamOnlyMultipartFile("a.png", shared));
+        failingSize = 2_000;
+        List<MultipartFile> files = List.of(
+                new StreamOnlyMultipartFile("a.png", shared),
+                new StreamOnlyMultipartFile("b.png", randomBytes(2_000)),
+                new StreamOnlyMultipartFile("c.png", randomBytes(3_000)));
+
+        // WHEN
+        ImageStorageService.BatchUploadException e = assertThrows(ImageStorageService.BatchUploadException.class,
+                () -> storageService.uploadImages(files));
+
+        // THEN : seule c.png est signalée comme créée par le lot
+        assertEquals(1, e.getCreated().size());
+        assertFalse(e.getCreated().contains(sharedUrl));
+        assertArrayEquals(shared, objects.get(sharedUrl.substring(sharedUrl.lastIndexOf('/') + 1)));
+    }
+
+    @Test
+    void uploadImages_whenOneIsEmpty_shouldUploadNothing() {
+        // GIVEN
+        List<MultipartFile> files = List.of(
+                new StreamOnlyMultipartFile("a.png", randomBytes(1_000)),
+                new StreamOnlyMultipartFile("empty.png", new byte[0]));
+
+        // WHEN & THEN
+        assertThrows(IllegalArgumentException.class, () -> storageService.uploadImages(files));
+        assertTrue(operations.isEmpty());
+    }
+
+    @Test
+    void storeRendition_shouldStoreNextToOriginal() throws IOException {
+        // GIVEN
+        String originalUrl = storageService.uploadImage(new StreamOnlyMultipartFile("photo.png", randomBytes(1_000)));
+        byte[] jpeg = randomBytes(500);
+
+        // WHEN
+        String url = storageService.storeRendition(originalUrl, "thumb", jpeg);
+
+        // THEN
+        assertEquals(originalUrl.replace(".png", "_thumb.jpg"), url);
+        assertArrayEquals(jpeg, objects.get(url.substring(url.lastIndexOf('/') + 1)));
+    }
+
+    @Test
+    void listObjects_shouldReadEveryPage() {
+        // GIVEN : 5 objets, le faux S3 en renvoie 2 par page
+        for (int i = 1; i <= 5; i++) {
+            objects.put("image" + i + ".png", randomBytes(100 * i));
+        }
+
+        // WHEN
+        List<ImageStorageService.StoredObject> listed;
+        try (Stream<ImageStorageService.StoredObject> stream = storageService.listObjects()) {
+            listed = stream.toList();
+        }
+
+        // THEN
+        assertEquals(5, listed.size());
+        assertEquals("https://owod-images.s3.eu-west-3.amazonaws.com/image3.png", listed.get(2).url());
+        assertEquals(300, listed.get(2).size());
+        assertNotNull(listed.get(2).lastModified());
+        assertEquals(List.of("LIST", "LIST", "LIST"), operations);
+    }
+
+    @Test
+    void deleteAll_shouldDeleteWithSingleRequest() throws IOException {
+        // GIVEN
+        objects.put("a.png", randomBytes(10));
+        objects.put("a_thumb.jpg", randomBytes(10));
+        objects.put("b.png", randomBytes(10));
+        String prefix = "https://owod-images.s3.eu-west-3.amazonaws.com/";
+
+        // WHEN
+        storageService.deleteAll(List.of(prefix + "a.png", prefix + "a_thumb.jpg", "https://elsewhere.example/b.png"));
+
+        // THEN
+        assertEquals(List.of("DELETE_OBJECTS"), operations);
+        assertEquals(Map.of("b.png", objects.get("b.png")), objects);
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Fichier uploadé dont le contenu ne peut être lu qu'en flux.
+     */
+    private static class StreamOnlyMultipartFile extends MockMultipartFile {
+        StreamOnlyMultipartFile(String name, byte[] content) {
+            super("profilePicture", name, "image/png", content);
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("The upload must be streamed, not buffered");
+        }
+    }
+
+    /**
+     * Faux S3 : HeadObject, PutObject, DeleteObject(s), ListObjectsV2 et uploads multipart,
+     * adressage par chemin (/bucket/clé).
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String key = path.length() > "/owod-images/".length() ? path.substring("/owod-images/".length()) : "";
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        byte[] body = readBody(exchange);
+
+        if (method.equals("GET") && query.containsKey("list-type")) {
+            operations.add("LIST");
+            respond(exchange, 200, null, listPage(query.get("continuation-token")));
+        } else if (method.equals("POST") && query.containsKey("delete")) {
+            operations.add("DELETE_OBJECTS");
+            Matcher keys = Pattern.compile("<Key>([^<]*)</Key>").matcher(new String(body, StandardCharsets.UTF_8));
+            while (keys.find()) {
+                objects.remove(keys.group(1));
+            }
+            respond(exchange, 200, null, "<DeleteResult></DeleteResult>");
+        } else if (method.equals("HEAD")) {
+            operations.add("HEAD");
+            exchange.sendResponseHeaders(objects.containsKey(key) ? 200 : 404, -1);
+            exchange.close();
+        } else if (method.equals("POST") && query.containsKey("uploads")) {
+            operations.add("CREATE");
+            String uploadId = "upload" + uploads.size();
+            uploads.put(uploadId, new TreeMap<>());
+            respond(exchange, 200, null, "<InitiateMultipartUploadResult><Bucket>owod-images</Bucket><Key>" + key
+                    + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+        } else if (method.equals("PUT") && query.containsKey("partNumber")) {
+            operations.add("PART");
+            int partNumber = Integer.parseInt(query.get("partNumber"));
+            if (failingPart != null && failingPart == partNumber) {
+                respond(exchange, 400, null, "<Error><Code>InvalidPart</Code><Message>Rejected</Message></Error>");
+                return;
+            }
+            uploads.get(query.get("uploadId")).put(partNumber, body);
+            respond(exchange, 200, md5(body), "");
+        } else if (method.equals("POST") && query.containsKey("uploadId")) {
+            operations.add("COMPLETE");
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            for (byte[] part : uploads.remove(query.get("uploadId")).values()) {
+                object.write(part);
+            }
+            objects.put(key, object.toByteArray());
+            respond(exchange, 200, null, "<CompleteMultipartUploadResult><Bucket>owod-images</Bucket><Key>" + key
+                    + "</Key><ETag>\"etag\"</ETag></CompleteMultipartUploadResult>");
+        } else if (method.equals("DELETE") && query.containsKey("uploadId")) {
+            operations.add("ABORT");
+            uploads.remove(query.get("uploadId"));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else if (method.equals("DELETE")) {
+            operations.add("DELETE");
+            objects.remove(key);
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else if (method.equals("PUT")) {
+            operations.add("PUT");
+            if (putDelayMs > 0) {
+                try {
+                    Thread.sleep(putDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failingSize != null && body.length == failingSize) {
+                respond(exchange, 400, null, "<Error><Code>InvalidRequest</Code><Message>Rejected</Message></Error>");
+                return;
+            }
+            objects.put(key, body);
+            respond(exchange, 200, md5(body), "");
+        } else {
+            respond(exchange, 400, null, "<Error><Code>NotImplemented</Code></Error>");
+        }
+    }
+
+    /**
+     * Page de ListObjectsV2 de 2 clés au plus, par ordre alphabétique ; le jeton de continuation est l'index de la page suivante.
+     */
+    private String listPage(String continuationToken) {
+        List<String> keys = objects.keySet().stream().sorted().toList();
+        int from = continuationToken == null ? 0 : Integer.parseInt(continuationToken);
+        int to = Math.min(from + 2, keys.size());
+        StringBuilder xml = new StringBuilder("<ListBucketResult><Name>owod-images</Name><KeyCount>")
+                .append(to - from).append("</KeyCount><IsTruncated>").append(to < keys.size()).append("</IsTruncated>");
+        if (to < keys.size()) {
+            xml.append("<NextContinuationToken>").append(to).append("</NextContinuationToken>");
+        }
+        for (String key : keys.subList(from, to)) {
+            xml.append("<Contents><Key>").append(key).append("</Key><LastModified>2024-01-01T00:00:00.000Z</LastModified><Size>")
+                    .append(objects.get(key).length).append("</Size></Contents>");
+        }
+        return xml.append("</ListBucketResult>").toString();
+    }
+
+    private Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                String[] pair = param.split("=", 2);
+                params.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Lit le corps de la requête, en décodant l'encodage "aws-chunked" des envois signés en streaming.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readAllBytes();
+        }
+        String sha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (sha256 == null || !sha256.startsWith("STREAMING-")) {
+            return raw;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int pos = 0;
+        while (true) {
+            int lineEnd = indexOfCrlf(raw, pos);
+            String header = new String(raw, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0], 16);
+            pos = lineEnd + 2;
+            if (size == 0) {
+                return decoded.toByteArray();
+            }
+            decoded.write(raw, pos, size);
+            pos += size + 2;
+        }
+    }
+
+    private int indexOfCrlf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Malformed aws-chunked body");
+    }
+
+    private void respond(HttpExchange exchange, int status, String eTag, String xml) throws IOException {
+        if (eTag != null) {
+            exchange.getResponseHeaders().add("ETag", "\"" + eTag + "\"");
+        }
+        byte[] response = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+        if (response.length > 0) {
+            exchange.getResponseBody().write(response);
+        }
+        exchange.close();
+    }
+
+    private String md5(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.owod.plateforme_api.services;
 import com.owod.plateforme_api.mappers.CompanyMapper;
 import com.owod.plateforme_api.models.dtos.CompanyDTO;
 import com.owod.plateforme_api.models.entities.Company;
+import com.owod.plateforme_api.models.entities.ImageRenditions;
 import com.owod.plateforme_api.repositories.CompanyRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +15,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -30,7 +32,10 @@ class CompanyServiceTest {
     CompanyMapper companyMapper;
 
     @Mock
-    ImageStorageService imageStorageService;
+    ImageRenditionService imageRenditionService;
+
+    @Mock
+    ImageReferenceService imageReferenceService;
 
     @InjectMocks
     CompanyService companyService;
@@ -255,17 +260,19 @@ class CompanyServiceTest {
         Company existing = new Company(); existing.setId(id);
 
         when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(imageStorageService.uploadImage(file)).thenReturn("https://cdn/logo.png");
+        ImageRenditions logo = new ImageRenditions("https://cdn/logo.png", Map.of("thumb", "https://cdn/logo_thumb.jpg"));
+        when(imageRenditionService.upload(file)).thenReturn(logo);
         when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Company saved = companyService.updateLogo(id, file);
 
         assertEquals("https://cdn/logo.png", saved.getLogoUrl());
-        InOrder io = inOrder(companyRepository, imageStorageService);
+        assertSame(logo, saved.getLogoRenditions());
+        InOrder io = inOrder(companyRepository, imageRenditionService);
         io.verify(companyRepository).findById(id);
-        io.verify(imageStorageService).uploadImage(file);
+        io.verify(imageRenditionService).upload(file);
         io.verify(companyRepository).save(existing);
-        verifyNoMoreInteractions(companyRepository, imageStorageService);
+        verifyNoMoreInteractions(companyRepository, imageRenditionService);
     }
 
     @Test
@@ -275,16 +282,16 @@ class CompanyServiceTest {
         Company existing = new Company(); existing.setId(id);
 
         when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(imageStorageService.uploadImage(file)).thenReturn("https://cdn/team.png");
+        when(imageRenditionService.upload(file)).thenReturn(new ImageRenditions("https://cdn/team.png", Map.of()));
         when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Company saved = companyService.updateTeamPhoto(id, file);
 
         assertEquals("https://cdn/team.png", saved.getTeamPhotoUrl());
         verify(companyRepository).findById(id);
-        verify(imageStorageService).uploadImage(file);
+        verify(imageRenditionService).upload(file);
         verify(companyRepository).save(existing);
-        verifyNoMoreInteractions(companyRepository, imageStorageService);
+        verifyNoMoreInteractions(companyRepository, imageRenditionService);
     }
 
     @Test
@@ -298,15 +305,16 @@ class CompanyServiceTest {
         existing.setWorksUrl(List.of("a.jpg", "b.jpg")); // existant
 
         when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(imageStorageService.uploadImage(f1)).thenReturn("c.jpg");
-        when(imageStorageService.uploadImage(f2)).thenReturn("d.jpg");
+        when(imageRenditionService.uploadAll(List.of(f1, f2))).thenReturn(List.of(
+                new ImageRenditions("c.jpg", Map.of("thumb", "c_thumb.jpg")),
+                new ImageRenditions("d.jpg", Map.of("thumb", "d_thumb.jpg"))));
         when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Company saved = companyService.addWorks(id, List.of(f1, f2));
 
         assertEquals(List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg"), saved.getWorksUrl());
-        verify(imageStorageService).uploadImage(f1);
-        verify(imageStorageService).uploadImage(f2);
+        assertEquals(List.of("c.jpg", "d.jpg"), saved.getWorksRenditions().stream().map(ImageRenditions::getOriginal).toList());
+        verify(imageRenditionService).uploadAll(List.of(f1, f2));
         verify(companyRepository).save(existing);
     }
 
@@ -319,7 +327,7 @@ class CompanyServiceTest {
         existing.setWorksUrl(null); // cas important
 
         when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(imageStorageService.uploadImage(f)).thenReturn("x.jpg");
+        when(imageRenditionService.uploadAll(List.of(f))).thenReturn(List.of(new ImageRenditions("x.jpg", Map.of())));
         when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Company saved = companyService.addWorks(id, List.of(f));
@@ -334,7 +342,7 @@ class CompanyServiceTest {
         Company existing = new Company(); existing.setId(id);
 
         when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(imageStorageService.uploadImage(f)).thenThrow(new RuntimeException("boom"));
+        when(imageRenditionService.uploadAll(List.of(f))).thenThrow(new RuntimeException("boom"));
 
         assertThrows(RuntimeException.class, () -> companyService.addWorks(id, List.of(f)));
         verify(companyRepository, never()).save(any());
@@ -355,5 +363,62 @@ class CompanyServiceTest {
 
         assertNull(saved.getWorksUrl()); // reste null
         verify(companyRepository).save(existing);
+        verifyNoInteractions(imageReferenceService);
+    }
+
+    @Test
+    void deleteWork_shouldReleaseRemovedImage() {
+        String id = "1";
+        Company existing = new Company();
+        existing.setId(id);
+        existing.setWorksUrl(List.of("a.jpg", "b.jpg"));
+        existing.setWorksRenditions(List.of(new ImageRenditions("a.jpg", Map.of()), new ImageRenditions("b.jpg", Map.of())));
+
+        when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Company saved = companyService.deleteWork(id, "a.jpg");
+
+        assertEquals(List.of("b.jpg"), saved.getWorksUrl());
+        assertEquals(List.of("b.jpg"), saved.getWorksRenditions().stream().map(ImageRenditions::getOriginal).toList());
+        verify(imageReferenceService).release("a.jpg");
+    }
+
+    @Test
+    void deleteWork_whenSameImageListedTwice_shouldRemoveAndReleaseOneOccurrence() {
+        String id = "1";
+        Company existing = new Company();
+        existing.setId(id);
+        existing.setWorksUrl(List.of("a.jpg", "b.jpg", "a.jpg"));
+        existing.setWorksRenditions(List.of(new ImageRenditions("a.jpg", Map.of("thumb", "a_thumb.jpg")),
+                new ImageRenditions("b.jpg", Map.of()), new ImageRenditions("a.jpg", Map.of("thumb", "a_thumb.jpg"))));
+
+        when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Company saved = companyService.deleteWork(id, "a.jpg");
+
+        // La seconde occurrence garde ses déclinaisons et sa référence
+        assertEquals(List.of("b.jpg", "a.jpg"), saved.getWorksUrl());
+        assertEquals(List.of("b.jpg", "a.jpg"), saved.getWorksRenditions().stream().map(ImageRenditions::getOriginal).toList());
+        verify(imageReferenceService, times(1)).release("a.jpg");
+    }
+
+    @Test
+    void updateLogo_shouldReleasePreviousLogo() throws IOException {
+        String id = "1";
+        MultipartFile file = mock(MultipartFile.class);
+        Company existing = new Company(); existing.setId(id);
+        existing.setLogoUrl("https://cdn/old.png");
+
+        when(companyRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(imageRenditionService.upload(file)).thenReturn(new ImageRenditions("https://cdn/new.png", Map.of()));
+        when(companyRepository.save(any(Company.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        companyService.updateLogo(id, file);
+
+        InOrder io = inOrder(companyRepository, imageReferenceService);
+        io.verify(companyRepository).save(existing);
+        io.verify(imageReferenceService).release("https://cdn/old.png");
     }
 }
\ No newline at end of file
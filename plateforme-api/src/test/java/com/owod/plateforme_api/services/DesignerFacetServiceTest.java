@@ -0,0 +1,135 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.dtos.FacetCount;
+import com.owod.plateforme_api.models.entities.Designer;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DesignerFacetServiceTest {
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    DesignerFacetService designerFacetService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(designerFacetService, "reloadWaitMs", 5_000L);
+        // Chargement initial : un seul architecte
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class)))
+                .thenReturn(professions("Architecte"));
+        designerFacetService.getFacets();
+    }
+
+    @Test
+    void reload_whenDesignerSavedDuringAggregation_shouldRetry() {
+        // GIVEN : un designer enregistré pendant la première agrégation, que celle-ci ne voit pas
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class)))
+                .thenAnswer(invocation -> {
+                    saveDesigner("Designer");
+                    return professions("Architecte");
+                })
+                .thenReturn(professions("Architecte", "Designer"));
+
+        // WHEN
+        designerFacetService.reload();
+
+        // THEN : la seconde agrégation, sans écriture concurrente, est retenue
+        assertEquals(List.of(new FacetCount("Architecte", 1), new FacetCount("Designer", 1)),
+                designerFacetService.getFacets().professions());
+        verify(mongoTemplate, times(3)).aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class));
+    }
+
+    @Test
+    void reload_whenWritesNeverStop_shouldKeepIncrementalCounts() {
+        // GIVEN : une écriture pendant chaque agrégation
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class)))
+                .thenAnswer(invocation -> {
+                    saveDesigner("Designer");
+                    return professions("Architecte");
+                });
+
+        // WHEN
+        designerFacetService.reload();
+
+        // THEN : aucune mise à jour perdue
+        assertEquals(List.of(new FacetCount("Designer", 3), new FacetCount("Architecte", 1)),
+                designerFacetService.getFacets().professions());
+    }
+
+    @Test
+    void reload_whenWriteInProgress_shouldWaitForItBeforeAggregating() throws Exception {
+        // GIVEN : une écriture déjà envoyée à la base mais pas encore comptée
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class)))
+                .thenReturn(professions("Architecte", "Designer"));
+        designerFacetService.beginWrite();
+        CompletableFuture<Void> reload = CompletableFuture.runAsync(designerFacetService::reload);
+
+        // WHEN : l'écriture se termine pendant que le rechargement attend
+        Thread.sleep(100);
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class));
+        Designer designer = new Designer();
+        designer.setProfession("Designer");
+        designerFacetService.onSaved(null, designer);
+        designerFacetService.endWrite();
+        reload.get(5, TimeUnit.SECONDS);
+
+        // THEN : l'agrégation, lancée après l'écriture, la compte une seule fois
+        assertEquals(List.of(new FacetCount("Architecte", 1), new FacetCount("Designer", 1)),
+                designerFacetService.getFacets().professions());
+        verify(mongoTemplate, times(2)).aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class));
+    }
+
+    @Test
+    void reload_whenWriteNeverEnds_shouldKeepCounts() {
+        // GIVEN : une écriture qui ne se termine pas pendant l'attente
+        ReflectionTestUtils.setField(designerFacetService, "reloadWaitMs", 50L);
+        designerFacetService.beginWrite();
+
+        // WHEN
+        designerFacetService.reload();
+
+        // THEN : pas d'agrégation, qui aurait pu compter l'écriture deux fois
+        assertEquals(List.of(new FacetCount("Architecte", 1)), designerFacetService.getFacets().professions());
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(Designer.class), eq(Document.class));
+    }
+
+    private void saveDesigner(String profession) {
+        Designer designer = new Designer();
+        designer.setProfession(profession);
+        designerFacetService.beginWrite();
+        designerFacetService.onSaved(null, designer);
+        designerFacetService.endWrite();
+    }
+
+    /**
+     * Résultat de l'agrégation $facet avec un designer par profession.
+     */
+    private AggregationResults<Document> professions(String... professions) {
+        List<Document> buckets = Arrays.stream(professions)
+                .map(profession -> new Document("_id", profession).append("count", 1))
+                .toList();
+        return new AggregationResults<>(List.of(new Document("PROFESSION", buckets)), new Document());
+    }
+}
@@ -0,0 +1,226 @@
+package com.owod.plateforme_api.services;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.owod.plateforme_api.configuration.MongoCommandCounter;
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.repositories.DesignerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "spring.cache.type=caffeine")
+@Import({TestSecurityConfig.class, MongoCommandCounter.class})
+class DesignerServiceCacheTest {
+
+    @Autowired
+    private DesignerService designerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designers");
+        cacheManager.getCache(DesignerService.DESIGNER_CACHE).clear();
+
+        Designer designer = new Designer();
+        designer.setId("designer123");
+        designer.setLastname("Dupont");
+        mongoTemplate.save(designer);
+    }
+
+    @Test
+    void findById_shouldServeRepeatedLookupsFromCache() {
+        // GIVEN
+        long hitsBefore = stats().hitCount();
+        designerService.findById("designer123");
+        renameInDatabase("Durand");
+
+        // WHEN
+        Designer designer = designerService.findById("designer123").orElseThrow();
+
+        // THEN
+        assertEquals("Dupont", designer.getLastname());
+        assertEquals(hitsBefore + 1, stats().hitCount());
+    }
+
+    @Test
+    void findById_shouldNotCacheMissingDesigners() {
+        // GIVEN
+        assertTrue(designerService.findById("unknown").isEmpty());
+        Designer designer = new Designer();
+        designer.setId("unknown");
+        mongoTemplate.save(designer);
+
+        // WHEN & THEN
+        assertTrue(designerService.findById("unknown").isPresent());
+    }
+
+    @Test
+    void save_shouldEvictDesigner() {
+        // GIVEN
+        Designer designer = designerService.findById("designer123").orElseThrow();
+        designer.setLastname("Durand");
+
+        // WHEN
+        designerService.save(designer);
+
+        // THEN
+        assertNull(cacheManager.getCache(DesignerService.DESIGNER_CACHE).get("designer123"));
+        assertEquals("Durand", designerService.findById("designer123").orElseThrow().getLastname());
+    }
+
+    @Test
+    void findById_shouldReturnIndependentCopies() {
+        // GIVEN
+        Designer first = designerService.findById("designer123").orElseThrow();
+
+        // WHEN
+        first.setLastname("Durand");
+        first.getMajorWorks().add("http://fake.local/work.png");
+
+        // THEN : ni le cache ni les autres lecteurs ne voient la modification non enregistrée
+        Designer second = designerService.findById("designer123").orElseThrow();
+        assertNotSame(first, second);
+        assertEquals("Dupont", second.getLastname());
+        assertTrue(second.getMajorWorks().isEmpty());
+    }
+
+    @Test
+    void save_whenDesignerCached_shouldTakePreviousValuesFromCache() {
+        // GIVEN
+        Designer designer = designerService.findById("designer123").orElseThrow();
+        designer.setProfession("Architecte");
+        mongoCommandCounter.reset();
+
+        // WHEN
+        designerService.save(designer);
+
+        // THEN : une seule écriture, sans relire le designer pour les compteurs des filtres
+        assertEquals(List.of("update:designers"), mongoCommandCounter.commands());
+    }
+
+    @Test
+    void save_whenSaveFails_shouldLeaveCachedDesignerUnchanged() {
+        // GIVEN : un designer en cache, modifié puis dont l'enregistrement échoue
+        designerService.findById("designer123");
+        Designer designer = designerService.findById("designer123").orElseThrow();
+        designer.setLastname("Durand");
+        designer.getMajorWorks().add("http://fake.local/work.png");
+
+        DesignerService target = AopTestUtils.getTargetObject(designerService);
+        DesignerRepository repository = (DesignerRepository) ReflectionTestUtils.getField(target, "designerRepository");
+        DesignerRepository failingRepository = mock(DesignerRepository.class);
+        when(failingRepository.save(any(Designer.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        ReflectionTestUtils.setField(target, "designerRepository", failingRepository);
+        try {
+            // WHEN
+            assertThrows(DataAccessResourceFailureException.class, () -> designerService.save(designer));
+        } finally {
+            ReflectionTestUtils.setField(target, "designerRepository", repository);
+        }
+
+        // THEN
+        Designer cached = designerService.findById("designer123").orElseThrow();
+        assertEquals("Dupont", cached.getLastname());
+        assertTrue(cached.getMajorWorks().isEmpty());
+    }
+
+    @Test
+    void findById_whenSavedWhileLoading_shouldNotCacheTheVersionReadBefore() throws Exception {
+        // GIVEN : une lecture du designer, bloquée après avoir lu l'ancienne version
+        DesignerService target = AopTestUtils.getTargetObject(designerService);
+        DesignerRepository repository = (DesignerRepository) ReflectionTestUtils.getField(target, "designerRepository");
+        DesignerRepository slowRepository = mock(DesignerRepository.class, AdditionalAnswers.delegatesTo(repository));
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            Optional<Designer> result = repository.findById("designer123");
+            if (first.getAndSet(false)) {
+                read.countDown();
+                proceed.await(5, TimeUnit.SECONDS);
+            }
+            return result;
+        }).when(slowRepository).findById("designer123");
+        ReflectionTestUtils.setField(target, "designerRepository", slowRepository);
+        try {
+            CompletableFuture<Optional<Designer>> lookup = CompletableFuture.supplyAsync(
+                    () -> designerService.findById("designer123"));
+            assertTrue(read.await(5, TimeUnit.SECONDS));
+
+            // WHEN : un enregistrement concurrent, terminé avant la mise en cache de la lecture
+            Designer designer = new Designer();
+            designer.setId("designer123");
+            designer.setLastname("Durand");
+            CompletableFuture<Designer> save = CompletableFuture.supplyAsync(() -> designerService.save(designer));
+            try {
+                // Terminé, ou bloqué par l'éviction tant que la lecture n'est pas en cache
+                save.get(2, TimeUnit.SECONDS);
+            } catch (TimeoutException ignored) {
+            }
+            proceed.countDown();
+            lookup.get(5, TimeUnit.SECONDS);
+            save.get(5, TimeUnit.SECONDS);
+        } finally {
+            ReflectionTestUtils.setField(target, "designerRepository", repository);
+        }
+
+        // THEN : l'ancienne version n'est pas servie depuis le cache
+        assertEquals("Durand", designerService.findById("designer123").orElseThrow().getLastname());
+    }
+
+    @Test
+    void delete_shouldEvictDesigner() {
+        // GIVEN
+        designerService.findById("designer123");
+
+        // WHEN
+        designerService.delete("designer123");
+
+        // THEN
+        assertTrue(designerService.findById("designer123").isEmpty());
+    }
+
+    private void renameInDatabase(String lastname) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is("designer123")),
+                Update.update("lastname", lastname), Designer.class);
+    }
+
+    private CacheStats stats() {
+        return ((CaffeineCache) cacheManager.getCache(DesignerService.DESIGNER_CACHE)).getNativeCache().stats();
+    }
+}
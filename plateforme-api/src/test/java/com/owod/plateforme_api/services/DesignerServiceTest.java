@@ -1,5 +1,6 @@
 package com.owod.plateforme_api.services;
 
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
 import com.owod.plateforme_api.models.entities.Designer;
 import com.owod.plateforme_api.repositories.DesignerRepository;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +23,21 @@ class DesignerServiceTest {
     @Mock
     DesignerRepository designerRepository;
 
+    @Mock
+    DesignerFacetService designerFacetService;
+
+    @Mock
+    DesignerTextIndexService designerTextIndexService;
+
+    @Mock
+    DesignerEventService designerEventService;
+
+    @Mock
+    ImageReferenceService imageReferenceService;
+
+    @Mock
+    CacheManager cacheManager;
+
     @InjectMocks
     DesignerService designerService;
 
@@ -62,6 +79,7 @@ class DesignerServiceTest {
         assertNotNull(savedDesigner); // Vérifie que le retour n'est pas null
         assertEquals("Doe", savedDesigner.getLastname()); // Vérifie que le champ est correct
         verify(designerRepository, times(1)).save(designer); // Vérifie que save() a été appelé une fois
+        verify(designerFacetService, times(1)).onSaved(null, designer); // Vérifie la mise à jour des filtres
     }
 
     @Test
@@ -101,26 +119,40 @@ class DesignerServiceTest {
     void findBySpecialty() {
         // GIVEN
         String specialty = "Web Design";
-        Designer designer1 = new Designer();
-        designer1.setLastname("Doe");
-        designer1.setSpecialties(List.of("Web Design", "Graphic Design"));
+        DesignerSummary designer1 = new DesignerSummary("1", "John", "Doe", null, "designer",
+                List.of("Web Design", "Graphic Design"), "France", null);
+        DesignerSummary designer2 = new DesignerSummary("2", "Jane", "Smith", null, "designer",
+                List.of("Web Design"), "France", null);
 
-        Designer designer2 = new Designer();
-        designer2.setLastname("Smith");
-        designer2.setSpecialties(List.of("Web Design"));
-
-        List<Designer> designers = List.of(designer1, designer2);
+        List<DesignerSummary> designers = List.of(designer1, designer2);
 
-        when(designerRepository.findBySpecialtiesContaining(specialty)).thenReturn(designers);
+        when(designerRepository.findSummariesBySpecialtiesContaining(specialty)).thenReturn(designers);
 
         // WHEN
-        List<Designer> foundDesigners = designerService.findBySpecialty(specialty);
+        List<DesignerSummary> foundDesigners = designerService.findBySpecialty(specialty);
 
         // THEN
         assertEquals(2, foundDesigners.size()); // Vérifie le nombre d'éléments trouvés
-        assertEquals("Doe", foundDesigners.get(0).getLastname()); // Vérifie le premier élément
-        assertEquals("Smith", foundDesigners.get(1).getLastname()); // Vérifie le second élément
-        verify(designerRepository, times(1)).findBySpecialtiesContaining(specialty); // Vérifie que la méthode a été appelée une fois
+        assertEquals("Doe", foundDesigners.get(0).lastname()); // Vérifie le premier élément
+        assertEquals("Smith", foundDesigners.get(1).lastname()); // Vérifie le second élément
+        verify(designerRepository, times(1)).findSummariesBySpecialtiesContaining(specialty); // Vérifie que la méthode a été appelée une fois
+    }
+
+    @Test
+    void delete_shouldReleaseImagesOfDesigner() {
+        // GIVEN
+        Designer designer = new Designer();
+        designer.setId("1");
+        designer.setProfilePicture("profile.png");
+        designer.setMajorWorks(List.of("work1.png", "work2.png"));
+        when(designerRepository.findById("1")).thenReturn(Optional.of(designer));
+
+        // WHEN
+        designerService.delete("1");
+
+        // THEN
+        verify(designerRepository).deleteById("1");
+        verify(imageReferenceService).release(List.of("profile.png", "work1.png", "work2.png"));
     }
 
 }
\ No newline at end of file
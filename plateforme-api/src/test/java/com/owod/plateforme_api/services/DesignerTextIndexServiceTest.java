@@ -0,0 +1,79 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.dtos.DesignerSummary;
+import com.owod.plateforme_api.models.entities.Designer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DesignerTextIndexServiceTest {
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    DesignerTextIndexService designerTextIndexService;
+
+    @Test
+    void reload_shouldKeepWritesMadeWhileStreaming() {
+        // GIVEN : pendant la lecture de la collection, un designer est créé et un autre supprimé
+        Designer dupont = designer("1", "Dupont");
+        Designer durand = designer("2", "Durand");
+        Designer martin = designer("3", "Martin");
+        when(mongoTemplate.stream(any(Query.class), eq(Designer.class)))
+                .thenReturn(Stream.of(dupont, durand).peek(read -> {
+                    if (read == dupont) {
+                        designerTextIndexService.onSaved(martin);
+                        designerTextIndexService.onDeleted("2");
+                    }
+                }));
+
+        // WHEN
+        designerTextIndexService.reload();
+
+        // THEN
+        assertEquals(List.of("3"), ids(designerTextIndexService.search("martin", 0, 10).designers()));
+        assertEquals(List.of(), ids(designerTextIndexService.search("durand", 0, 10).designers()));
+        assertEquals(List.of("1"), ids(designerTextIndexService.search("dupont", 0, 10).designers()));
+    }
+
+    @Test
+    void onSaved_afterReload_shouldNotBeReplayedAgain() {
+        // GIVEN
+        when(mongoTemplate.stream(any(Query.class), eq(Designer.class)))
+                .thenReturn(Stream.of(designer("1", "Dupont")))
+                .thenReturn(Stream.of(designer("1", "Dupont")));
+        designerTextIndexService.reload();
+        designerTextIndexService.onDeleted("1");
+
+        // WHEN
+        designerTextIndexService.reload();
+
+        // THEN : la suppression antérieure au rechargement n'est pas rejouée
+        assertEquals(List.of("1"), ids(designerTextIndexService.search("dupont", 0, 10).designers()));
+    }
+
+    private Designer designer(String id, String lastname) {
+        Designer designer = new Designer();
+        designer.setId(id);
+        designer.setLastname(lastname);
+        return designer;
+    }
+
+    private List<String> ids(List<DesignerSummary> designers) {
+        return designers.stream().map(DesignerSummary::id).toList();
+    }
+}
@@ -0,0 +1,235 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.Company;
+import com.owod.plateforme_api.models.entities.Designer;
+import com.owod.plateforme_api.models.entities.ImageReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class ImageGarbageCollectionServiceTest {
+
+    private static final String PREFIX = "https://owod-images.s3.eu-west-3.amazonaws.com/";
+
+    // Noms de contenu (SHA-256 en hexadécimal), comme ceux donnés par l'application
+    private static final String AAA = "a".repeat(64);
+    private static final String BBB = "b".repeat(64);
+    private static final String CCC = "c".repeat(64);
+    private static final String DDD = "d".repeat(64);
+    private static final String EEE = "e".repeat(64);
+    private static final String FFF = "f".repeat(64);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private ImageGarbageCollectionService garbageCollectionService;
+
+    // Objets du faux stockage, par URL
+    private final Map<String, ImageStorageService.StoredObject> stored = new ConcurrentHashMap<>();
+    // Lots de suppression reçus par le faux stockage
+    private final List<List<String>> deleteBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection("designers");
+        mongoTemplate.dropCollection("companies");
+        mongoTemplate.dropCollection("image_references");
+
+        garbageCollectionService = new ImageGarbageCollectionService();
+        ReflectionTestUtils.setField(garbageCollectionService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(garbageCollectionService, "imageStorageService", new InMemoryStorage());
+        ReflectionTestUtils.setField(garbageCollectionService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(garbageCollectionService, "minAgeMs", 3_600_000L);
+        ReflectionTestUtils.setField(garbageCollectionService, "batchSize", 2);
+        ReflectionTestUtils.setField(garbageCollectionService, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(garbageCollectionService, "enabled", true);
+        garbageCollectionService.initCounters();
+    }
+
+    @Test
+    void collect_shouldDeleteOnlyUnreferencedImagesAndTheirRenditions() throws IOException {
+        // GIVEN : une photo de profil et un logo référencés, une ancienne photo orpheline avec ses déclinaisons
+        Designer designer = new Designer();
+        designer.setId("designer1");
+        designer.setProfilePicture("http://localhost:8080/uploads/" + AAA + ".png");
+        designer.setMajorWorks(new ArrayList<>(List.of(PREFIX + BBB + ".jpg")));
+        mongoTemplate.save(designer);
+        Company company = new Company();
+        company.setId("company1");
+        company.setLogoUrl(PREFIX + CCC + ".png");
+        mongoTemplate.save(company);
+
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        store(AAA + ".png", 1_000, old);
+        store(AAA + "_thumb.jpg", 100, old);
+        store(BBB + ".jpg", 1_000, old);
+        store(CCC + ".png", 1_000, old);
+        store(CCC + "_card.jpg", 200, old);
+        store(DDD + ".png", 5_000, old);
+        store(DDD + "_full.jpg", 800, old);
+        store(DDD + "_thumb.jpg", 50, old);
+        mongoTemplate.save(reference(PREFIX + DDD + ".png", old));
+
+        // WHEN
+        ImageGarbageCollectionService.Report report = garbageCollectionService.collect();
+
+        // THEN : l'orpheline est supprimée par lots, avec son compteur de références
+        assertEquals(new ImageGarbageCollectionService.Report(8, 3, 5_850), report);
+        assertEquals(Set.of(PREFIX + AAA + ".png", PREFIX + AAA + "_thumb.jpg", PREFIX + BBB + ".jpg",
+                PREFIX + CCC + ".png", PREFIX + CCC + "_card.jpg"), stored.keySet());
+        assertEquals(2, deleteBatches.size());
+        assertEquals(0, mongoTemplate.count(new Query(), ImageReference.class));
+    }
+
+    @Test
+    void collect_shouldKeepRecentUploads() throws IOException {
+        // GIVEN : une image envoyée à l'instant, pas encore enregistrée sur un designer
+        store(EEE + ".png", 1_000, Instant.now().minusSeconds(10));
+
+        // WHEN
+        ImageGarbageCollectionService.Report report = garbageCollectionService.collect();
+
+        // THEN
+        assertEquals(new ImageGarbageCollectionService.Report(1, 0, 0), report);
+        assertTrue(stored.containsKey(PREFIX + EEE + ".png"));
+    }
+
+    @Test
+    void collect_shouldKeepImagesReferencedSinceMarking() throws IOException {
+        // GIVEN : une ancienne image renvoyée à l'identique, référence comptée mais designer pas encore enregistré
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        store(FFF + ".png", 1_000, old);
+        store(FFF + "_thumb.jpg", 100, old);
+        mongoTemplate.save(reference(PREFIX + FFF + ".png", Instant.now()));
+
+        // WHEN
+        ImageGarbageCollectionService.Report report = garbageCollectionService.collect();
+
+        // THEN
+        assertEquals(0, report.deleted());
+        assertEquals(2, stored.size());
+    }
+
+    @Test
+    void collect_shouldOnlyDeleteObjectsNamedByTheApplication() throws IOException {
+        // GIVEN : une orpheline nommée par une ancienne version, et des fichiers d'une autre origine
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        String legacy = "3f2a9c1e-8b4d-4e6f-a1b2-c3d4e5f60718_photo";
+        store(legacy + ".png", 1_000, old);
+        store(legacy + "_thumb.jpg", 100, old);
+        store("backups/export.zip", 9_000, old);
+        store("logo-site.png", 2_000, old);
+        store(AAA + "_other.jpg", 300, old);
+
+        // WHEN
+        ImageGarbageCollectionService.Report report = garbageCollectionService.collect();
+
+        // THEN
+        assertEquals(new ImageGarbageCollectionService.Report(5, 2, 1_100), report);
+        assertEquals(Set.of(PREFIX + "backups/export.zip", PREFIX + "logo-site.png", PREFIX + AAA + "_other.jpg"),
+                stored.keySet());
+    }
+
+    @Test
+    void collect_inDryRun_shouldReportOrphansWithoutDeletingThem() throws IOException {
+        // GIVEN
+        ReflectionTestUtils.setField(garbageCollectionService, "dryRun", true);
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        store(DDD + ".png", 5_000, old);
+        store(DDD + "_thumb.jpg", 50, old);
+        mongoTemplate.save(reference(PREFIX + DDD + ".png", old));
+
+        // WHEN
+        ImageGarbageCollectionService.Report report = garbageCollectionService.collect();
+
+        // THEN
+        assertEquals(new ImageGarbageCollectionService.Report(2, 2, 5_050), report);
+        assertEquals(2, stored.size());
+        assertTrue(deleteBatches.isEmpty());
+        assertEquals(1, mongoTemplate.count(new Query(), ImageReference.class));
+    }
+
+    @Test
+    void scheduledCollect_whenDisabled_shouldDeleteNothing() throws IOException {
+        // GIVEN
+        ReflectionTestUtils.setField(garbageCollectionService, "enabled", false);
+        store(DDD + ".png", 5_000, Instant.now().minus(2, ChronoUnit.DAYS));
+
+        // WHEN
+        garbageCollectionService.scheduledCollect();
+
+        // THEN
+        assertEquals(1, stored.size());
+    }
+
+    private void store(String name, long size, Instant lastModified) {
+        stored.put(PREFIX + name, new ImageStorageService.StoredObject(PREFIX + name, size, lastModified));
+    }
+
+    private ImageReference reference(String url, Instant acquiredAt) {
+        ImageReference reference = new ImageReference();
+        reference.setUrl(url);
+        reference.setCount(1);
+        reference.setAcquiredAt(acquiredAt);
+        return reference;
+    }
+
+    /**
+     * Stockage en mémoire, listé par ordre alphabétique.
+     */
+    private class InMemoryStorage implements ImageStorageService {
+
+        @Override
+        public String uploadImage(MultipartFile file) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String storeRendition(String originalUrl, String name, byte[] jpeg) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(String url) {
+            stored.remove(url);
+        }
+
+        @Override
+        public void deleteAll(List<String> urls) {
+            deleteBatches.add(urls);
+            urls.forEach(stored::remove);
+        }
+
+        @Override
+        public Stream<StoredObject> listObjects() {
+            return stored.values().stream()
+                    .sorted((a, b) -> a.url().compareTo(b.url()))
+                    .toList()
+                    .stream();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.entities.ImageReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageReferenceServiceTest {
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    ImageStorageService imageStorageService;
+
+    @InjectMocks
+    ImageReferenceService imageReferenceService;
+
+    @Test
+    void discard_shouldKeepImagesReferencedByAConcurrentRequest() {
+        // GIVEN : b.png, créée par le lot échoué, a été trouvée et comptée par une autre requête entre-temps
+        when(mongoTemplate.exists(any(Query.class), eq(ImageReference.class))).thenReturn(false);
+        when(mongoTemplate.exists(Query.query(Criteria.where("_id").is("https://cdn/b.png")), ImageReference.class))
+                .thenReturn(true);
+
+        // WHEN
+        imageReferenceService.discard(List.of("https://cdn/a.png", "https://cdn/b.png"));
+
+        // THEN
+        verify(imageStorageService).deleteQuietly(List.of("https://cdn/a.png"));
+    }
+}
@@ -0,0 +1,239 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.models.entities.ImageRenditions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImageRenditionServiceTest {
+
+    private ImageRenditionService renditionService;
+    private ImageReferenceService imageReferenceService;
+
+    // Fichiers stockés par le faux stockage, par URL
+    private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setup() {
+        renditionService = new ImageRenditionService();
+        imageReferenceService = mock(ImageReferenceService.class);
+        ReflectionTestUtils.setField(renditionService, "imageStorageService", new InMemoryStorage());
+        ReflectionTestUtils.setField(renditionService, "imageReferenceService", imageReferenceService);
+        ReflectionTestUtils.setField(renditionService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(renditionService, "threads", 2);
+        ReflectionTestUtils.setField(renditionService, "queueSize", 4);
+        ReflectionTestUtils.setField(renditionService, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(renditionService, "maxPixels", 50_000_000L);
+        renditionService.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        renditionService.shutdownExecutor();
+    }
+
+    @Test
+    void upload_shouldStoreRenditionsAtFixedWidths() throws IOException {
+        // GIVEN : une photo PNG de 3000 x 2000
+        MultipartFile file = new MockMultipartFile("profilePicture", "photo.png", "image/png", png(3000, 2000));
+
+        // WHEN
+        ImageRenditions renditions = renditionService.upload(file);
+
+        // THEN : trois JPEG à côté de l'original, au bon format et bien plus légers
+        assertEquals("http://fake.local/photo.png", renditions.getOriginal());
+        assertEquals(Map.of(
+                "full", "http://fake.local/photo_full.jpg",
+                "card", "http://fake.local/photo_card.jpg",
+                "thumb", "http://fake.local/photo_thumb.jpg"), renditions.getUrls());
+        assertSize(renditions.getUrls().get("full"), 1280, 853);
+        assertSize(renditions.getUrls().get("card"), 480, 320);
+        assertSize(renditions.getUrls().get("thumb"), 160, 107);
+        assertTrue(stored.get(renditions.getUrls().get("card")).length * 10 < file.getSize());
+        verify(imageReferenceService).acquire(List.of("http://fake.local/photo.png"));
+    }
+
+    @Test
+    void upload_whenSameImageAgain_shouldReuseRenditions() throws IOException {
+        // GIVEN
+        MultipartFile file = new MockMultipartFile("profilePicture", "photo.png", "image/png", png(1000, 500));
+        ImageRenditions first = renditionService.upload(file);
+        stored.replaceAll((url, content) -> url.endsWith(".jpg") ? new byte[0] : content);
+
+        // WHEN
+        ImageRenditions second = renditionService.upload(file);
+
+        // THEN : déclinaisons existantes non regénérées
+        assertEquals(first.getUrls(), second.getUrls());
+        assertEquals(0, stored.get(second.getUrls().get("thumb")).length);
+        verify(imageReferenceService, times(2)).acquire(List.of("http://fake.local/photo.png"));
+    }
+
+    @Test
+    void upload_shouldNotEnlargeSmallImages() throws IOException {
+        // GIVEN
+        MultipartFile file = new MockMultipartFile("logo", "logo.png", "image/png", png(300, 100));
+
+        // WHEN
+        ImageRenditions renditions = renditionService.upload(file);
+
+        // THEN
+        assertSize(renditions.getUrls().get("full"), 300, 100);
+        assertSize(renditions.getUrls().get("card"), 300, 100);
+        assertSize(renditions.getUrls().get("thumb"), 160, 53);
+    }
+
+    @Test
+    void uploadAll_whenFileIsNotAnImage_shouldKeepOriginalWithoutRenditions() throws IOException {
+        // GIVEN
+        MultipartFile image = new MockMultipartFile("realisations", "work.png", "image/png", png(800, 600));
+        MultipartFile notImage = new MockMultipartFile("realisations", "notes.png", "image/png", new byte[]{1, 2, 3});
+
+        // WHEN
+        List<ImageRenditions> renditions = renditionService.uploadAll(List.of(image, notImage));
+
+        // THEN
+        assertEquals(2, renditions.size());
+        assertEquals(3, renditions.get(0).getUrls().size());
+        assertEquals("http://fake.local/notes.png", renditions.get(1).getOriginal());
+        assertTrue(renditions.get(1).getUrls().isEmpty());
+    }
+
+    @Test
+    void upload_whenImageIsTallAndNarrow_shouldSubsampleByHeight() throws IOException {
+        // GIVEN : une bande de 200 x 20000, trop étroite pour être sous-échantillonnée par sa largeur
+        MultipartFile file = new MockMultipartFile("realisations", "strip.png", "image/png", png(200, 20000));
+
+        // WHEN
+        ImageRenditions renditions = renditionService.upload(file);
+
+        // THEN : décodée au quart, pas plus de 4 fois plus haute que la déclinaison la plus large
+        assertSize(renditions.getUrls().get("full"), 50, 5000);
+    }
+
+    @Test
+    void upload_whenImageHasTooManyPixels_shouldKeepOriginalWithoutRenditions() throws IOException {
+        // GIVEN
+        ReflectionTestUtils.setField(renditionService, "maxPixels", 1_000_000L);
+        MultipartFile file = new MockMultipartFile("realisations", "huge.png", "image/png", png(2000, 1000));
+
+        // WHEN
+        ImageRenditions renditions = renditionService.upload(file);
+
+        // THEN
+        assertEquals("http://fake.local/huge.png", renditions.getOriginal());
+        assertTrue(renditions.getUrls().isEmpty());
+    }
+
+    @Test
+    void upload_whenImageDeletedByConcurrentRelease_shouldStoreItAgain() throws IOException {
+        // GIVEN : l'image est déjà stockée, puis supprimée par la libération de sa dernière référence
+        // entre la vérification de son existence et le comptage de la nouvelle référence
+        MultipartFile file = new MockMultipartFile("profilePicture", "photo.png", "image/png", png(300, 200));
+        stored.put("http://fake.local/photo.png", file.getBytes());
+        doAnswer(invocation -> stored.remove("http://fake.local/photo.png"))
+                .when(imageReferenceService).acquire(List.of("http://fake.local/photo.png"));
+
+        // WHEN
+        ImageRenditions renditions = renditionService.upload(file);
+
+        // THEN
+        assertEquals("http://fake.local/photo.png", renditions.getOriginal());
+        assertArrayEquals(file.getBytes(), stored.get("http://fake.local/photo.png"));
+    }
+
+    @Test
+    void uploadAll_whenOneUploadFails_shouldDiscardCreatedImagesThroughReferences() throws IOException {
+        // GIVEN
+        MultipartFile image = new MockMultipartFile("realisations", "work.png", "image/png", png(300, 200));
+        MultipartFile broken = new MockMultipartFile("realisations", "broken.png", "image/png", png(300, 200));
+
+        // WHEN
+        assertThrows(IOException.class, () -> renditionService.uploadAll(List.of(image, broken)));
+
+        // THEN : aucune suppression directe, seules les images sans référence seront supprimées
+        assertTrue(stored.containsKey("http://fake.local/work.png"));
+        verify(imageReferenceService).discard(List.of("http://fake.local/work.png"));
+        verify(imageReferenceService, never()).acquire(any());
+    }
+
+    private void assertSize(String url, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(stored.get(url)));
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+
+    /**
+     * Image PNG bruitée, donc peu compressible comme une photo.
+     */
+    private byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        Random random = new Random(width);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextInt(4) == 0) {
+                    image.setRGB(x, y, random.nextInt());
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Stockage en mémoire : l'original est conservé sous son nom, les déclinaisons à côté.
+     */
+    private class InMemoryStorage implements ImageStorageService {
+
+        @Override
+        public String uploadImage(MultipartFile file) throws IOException {
+            if ("broken.png".equals(file.getOriginalFilename())) {
+                throw new IOException("Upload failed");
+            }
+            String url = "http://fake.local/" + file.getOriginalFilename();
+            stored.put(url, file.getBytes());
+            return url;
+        }
+
+        @Override
+        public String storeRendition(String originalUrl, String name, byte[] jpeg) {
+            String url = ImageStorageService.renditionUrl(originalUrl, name);
+            stored.put(url, jpeg);
+            return url;
+        }
+
+        @Override
+        public boolean exists(String url) {
+            return stored.containsKey(url);
+        }
+
+        @Override
+        public void delete(String url) {
+            stored.remove(url);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.owod.plateforme_api.services;
+
+import com.owod.plateforme_api.configuration.TestSecurityConfig;
+import com.owod.plateforme_api.models.entities.MailOutboxMessage;
+import com.owod.plateforme_api.models.entities.MailOutboxMessage.Status;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "owod.mail.workers=1",
+        "owod.mail.poll-ms=50",
+        "owod.mail.max-attempts=3",
+        "owod.mail.retry-base-ms=50",
+        "owod.mail.retry-max-ms=50"
+})
+@Import({TestSecurityConfig.class, MailOutboxServiceTest.StubMailConfig.class})
+class MailOutboxServiceTest {
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StubMailSender mailSender;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection(MailOutboxMessage.class);
+        mailSender.batches.clear();
+        mailSender.failing = false;
+    }
+
+    @Test
+    void drain_shouldSendDueMessagesInOneBatch() throws Exception {
+        // GIVEN : trois messages en attente
+        for (int i = 0; i < 3; i++) {
+            mongoTemplate.insert(pending("user" + i + "@mail.com"));
+        }
+
+        // WHEN
+        mailOutboxService.drain();
+
+        // THEN : une seule connexion SMTP pour les trois messages
+        await(() -> mongoTemplate.findAll(MailOutboxMessage.class).stream().allMatch(m -> m.getStatus() == Status.SENT));
+        assertEquals(1, mailSender.batches.size());
+        assertEquals(3, mailSender.batches.get(0).size());
+        assertTrue(mongoTemplate.findAll(MailOutboxMessage.class).stream().allMatch(m -> m.getSentAt() != null));
+    }
+
+    @Test
+    void enqueue_shouldReturnBeforeSendingAndDeliverInBackground() throws Exception {
+        // GIVEN
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("no-reply@owod.local");
+        message.setTo("user@mail.com");
+        message.setSubject("Sujet");
+        message.setText("Texte");
+
+        // WHEN
+        MailOutboxMessage queued = mailOutboxService.enqueue(message);
+
+        // THEN
+        assertNotNull(queued.getId());
+        await(() -> mongoTemplate.findById(queued.getId(), MailOutboxMessage.class).getStatus() == Status.SENT);
+        assertEquals("user@mail.com", mailSender.batches.get(0).get(0).getTo()[0]);
+    }
+
+    @Test
+    void drain_whenSmtpFails_shouldRetryThenGiveUp() throws Exception {
+        // GIVEN
+        mailSender.failing = true;
+        MailOutboxMessage message = mongoTemplate.insert(pending("user@mail.com"));
+
+        // WHEN : les réessais sont repris par l'exécution planifiée
+        mailOutboxService.drain();
+
+        // THEN
+        await(() -> mongoTemplate.findById(message.getId(), MailOutboxMessage.class).getStatus() == Status.FAILED);
+        MailOutboxMessage failed = mongoTemplate.findById(message.getId(), MailOutboxMessage.class);
+        assertEquals(3, failed.getAttempts());
+        assertEquals("SMTP indisponible", failed.getLastError());
+        assertEquals(3, mailSender.batches.size());
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToTheMaximum() {
+        assertEquals(Duration.ofMillis(50), mailOutboxService.backoff(1));
+        assertEquals(Duration.ofMillis(50), mailOutboxService.backoff(5));
+    }
+
+    private MailOutboxMessage pending(String to) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setFrom("no-reply@owod.local");
+        message.setTo(to);
+        message.setSubject("Sujet");
+        message.setText("Texte");
+        message.setStatus(Status.PENDING);
+        message.setCreatedAt(Instant.now());
+        message.setNextAttemptAt(Instant.now());
+        return message;
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Serveur SMTP simulé : enregistre chaque envoi (un lot par connexion) ou échoue à la demande.
+     */
+    static class StubMailSender extends JavaMailSenderImpl {
+
+        final List<List<SimpleMailMessage>> batches = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            batches.add(List.of(simpleMessages));
+            if (failing) {
+                throw new MailSendException("SMTP indisponible");
+            }
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @TestConfiguration
+    static class StubMailConfig {
+        @Bean
+        StubMailSender stubMailSender() {
+            return new StubMailSender();
+        }
+    }
+}
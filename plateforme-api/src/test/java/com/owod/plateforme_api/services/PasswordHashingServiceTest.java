@@ -0,0 +1,124 @@
+package com.owod.plateforme_api.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    PasswordEncoder passwordEncoder;
+
+    @Spy
+    SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueSize", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "waitMs", 5000L);
+        passwordHashingService.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdownExecutor();
+    }
+
+    @Test
+    void matches_shouldUseTheEncoder() {
+        // GIVEN
+        when(passwordEncoder.matches("password", "hash")).thenReturn(true);
+
+        // WHEN & THEN
+        assertTrue(passwordHashingService.matches("password", "hash"));
+    }
+
+    @Test
+    void matches_whenPoolIsSaturated_shouldRejectImmediately() throws Exception {
+        // GIVEN : le seul thread est occupé et la file est pleine
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("b", "hash"));
+        while (meterRegistry.get("owod.password.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // WHEN & THEN
+        assertThrows(RejectedExecutionException.class, () -> passwordHashingService.matches("c", "hash"));
+        assertEquals(1, meterRegistry.get("owod.password.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void awaitTypicalMatch_shouldWaitAsLongAsTheCheckOfAKnownEmail() {
+        // GIVEN : les vérifications d'emails connus, recherche de l'utilisateur comprise, prennent 200 ms
+        for (int i = 0; i < 50; i++) {
+            passwordHashingService.recordKnownEmailCheck(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        // WHEN
+        long start = System.nanoTime();
+        passwordHashingService.awaitTypicalMatch();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // THEN
+        assertTrue(elapsedMs >= 190, "waited " + elapsedMs + " ms");
+    }
+
+    @Test
+    void awaitTypicalMatch_whenPoolIsSaturated_shouldRejectLikeAPasswordCheck() throws Exception {
+        // GIVEN : le seul thread est occupé et la file est pleine
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("b", "hash"));
+        while (meterRegistry.get("owod.password.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // WHEN & THEN : un email inconnu est refusé comme un mauvais mot de passe
+        assertThrows(RejectedExecutionException.class, () -> passwordHashingService.awaitTypicalMatch());
+        assertEquals(1, meterRegistry.get("owod.password.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -1,7 +1,9 @@
 package com.owod.plateforme_api.services;
 
+import com.owod.plateforme_api.models.entities.Designer;
 import com.owod.plateforme_api.models.entities.User;
 import com.owod.plateforme_api.repositories.UserRepository;
+import com.owod.plateforme_api.security.AuthenticatedUser;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,7 +12,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.security.Principal;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +25,12 @@ class UserServiceTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    DesignerService designerService;
+
+    @Mock
+    RegisteredEmailService registeredEmailService;
+
     @InjectMocks
     UserService userService;
 
@@ -79,4 +89,71 @@ class UserServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void isDesignerOwner_withOwnershipClaim_shouldNotReadUser() {
+        // GIVEN
+        AuthenticatedUser principal = new AuthenticatedUser("user456", Collections.emptyList(), "designer123", null);
+
+        // WHEN
+        boolean result = userService.isDesignerOwner("designer123", principal);
+
+        // THEN
+        assertTrue(result);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void isCompanyOwner_withoutOwnershipClaim_shouldFallBackToUser() {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user456");
+        user.setCompanyId("company123");
+        // Entreprise créée après l'émission du token
+        AuthenticatedUser principal = new AuthenticatedUser("user456", Collections.emptyList(), null, null);
+        when(userRepository.findByUserId("user456")).thenReturn(Optional.of(user));
+
+        // WHEN
+        boolean result = userService.isCompanyOwner("company123", principal);
+
+        // THEN
+        assertTrue(result);
+    }
+
+    @Test
+    void getUserFriends_shouldFetchAllFriendsInOneQuery() {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user456");
+        user.setFriendsId(Set.of("designer1", "designer2"));
+        Designer designer1 = new Designer();
+        designer1.setId("designer1");
+        Designer designer2 = new Designer();
+        designer2.setId("designer2");
+
+        when(userRepository.findByUserId("user456")).thenReturn(Optional.of(user));
+        when(designerService.findAllById(user.getFriendsId())).thenReturn(List.of(designer1, designer2));
+
+        // WHEN
+        List<Designer> friends = userService.getUserFriends("user456");
+
+        // THEN
+        assertEquals(2, friends.size());
+        verify(designerService, times(1)).findAllById(user.getFriendsId());
+        verify(designerService, never()).findById(anyString());
+    }
+
+    @Test
+    void getUserFriends_withoutFriends_shouldNotQueryDesigners() {
+        // GIVEN
+        User user = new User();
+        user.setUserId("user456");
+        when(userRepository.findByUserId("user456")).thenReturn(Optional.of(user));
+
+        // WHEN
+        List<Designer> friends = userService.getUserFriends("user456");
+
+        // THEN
+        assertTrue(friends.isEmpty());
+        verifyNoInteractions(designerService);
+    }
 }
@@ -1,10 +1,10 @@
-import { Component, Inject, OnDestroy, OnInit } from '@angular/core';
+import { AfterViewInit, Component, Inject, OnDestroy, OnInit, ViewChild } from '@angular/core';
 import { Designer } from '../../shared/interfaces/designer.interface';
 import { DesignerEvent } from '../../shared/interfaces/designer-event.interface';
 import { MAT_DIALOG_DATA, MatDialogModule } from '@angular/material/dialog';
 import { DesignerService } from '../../shared/services/designer.service';
 import { CommonModule } from '@angular/common';
-import { MatDatepickerModule } from '@angular/material/datepicker';
+import { MatCalendar, MatDatepickerModule } from '@angular/material/datepicker';
 import { MatNativeDateModule } from '@angular/material/core';
 import { MatListModule } from '@angular/material/list';
 import { MatButtonModule } from '@angular/material/button';
@@ -26,7 +26,7 @@ import { TranslateModule } from '@ngx-translate/core';
   templateUrl: './calendar-dialog.component.html',
   styleUrl: './calendar-dialog.component.css',
 })
-export class CalendarDialogComponent implements OnInit, OnDestroy {
+export class CalendarDialogComponent implements OnInit, AfterViewInit, OnDestroy {
   // designer connecté
   designer!: Designer | undefined;
 
@@ -34,6 +34,15 @@ export class CalendarDialogComponent implements OnInit, OnDestroy {
   selectedDate: Date = new Date();
   eventsOnSelectedDate: DesignerEvent[] = [];
 
+  // évènements du mois affiché, seuls chargés depuis l'API
+  monthEvents: DesignerEvent[] = [];
+  private displayedMonth = '';
+
+  // nombre d'évènements à venir, null tant qu'il n'est pas chargé
+  upcomingCount: number | null = null;
+
+  @ViewChild(MatCalendar) calendar?: MatCalendar<Date>;
+
   subs = new Subscription();
 
   /**
@@ -48,6 +57,18 @@ export class CalendarDialogComponent implements OnInit, OnDestroy {
 
   ngOnInit(): void {
     this.loadDesignerData();
+    this.loadUpcomingCount();
+    this.loadMonthEvents(this.selectedDate);
+  }
+
+  ngAfterViewInit(): void {
+    // Rechargement des évènements à chaque changement de mois affiché
+    if (this.calendar) {
+      const sub = this.calendar.stateChanges.subscribe(() => {
+        if (this.calendar) this.loadMonthEvents(this.calendar.activeDate);
+      });
+      this.subs.add(sub);
+    }
   }
 
   /**
@@ -59,7 +80,6 @@ export class CalendarDialogComponent implements OnInit, OnDestroy {
       .subscribe({
         next: (designer) => {
           this.designer = designer;
-          this.updateSelectedDateEvents();
         },
         error: (err) =>
           console.error(
@@ -71,13 +91,64 @@ export class CalendarDialogComponent implements OnInit, OnDestroy {
     this.subs.add(sub);
   }
 
+  /**
+   * Chargement du nombre d'évènements à venir du designer
+   */
+  loadUpcomingCount(): void {
+    const sub = this.designerService
+      .getDesignerEvents(this.data.designerId, this.toIsoDate(new Date()))
+      .subscribe({
+        next: (events) => (this.upcomingCount = events.length),
+        error: (err) =>
+          console.error('Erreur lors du chargement des évènements', err),
+      });
+
+    this.subs.add(sub);
+  }
+
+  /**
+   * Chargement des évènements du mois contenant la date, s'il n'est pas déjà chargé
+   * @param date
+   */
+  loadMonthEvents(date: Date): void {
+    const first = new Date(date.getFullYear(), date.getMonth(), 1);
+    const last = new Date(date.getFullYear(), date.getMonth() + 1, 0);
+    const from = this.toIsoDate(first);
+    if (from === this.displayedMonth) return;
+    this.displayedMonth = from;
+
+    const sub = this.designerService
+      .getDesignerEvents(this.data.designerId, from, this.toIsoDate(last))
+      .subscribe({
+        next: (events) => {
+          this.monthEvents = events;
+          this.updateSelectedDateEvents();
+          // Nouvelle coloration des jours avec les évènements chargés
+          this.calendar?.updateTodaysDate();
+        },
+        error: (err) =>
+          console.error('Erreur lors du chargement des évènements', err),
+      });
+
+    this.subs.add(sub);
+  }
+
+  /**
+   * Formatage d'une date locale en yyyy-MM-dd
+   * @param date
+   * @returns la date au format ISO
+   */
+  private toIsoDate(date: Date): string {
+    const month = String(date.getMonth() + 1).padStart(2, '0');
+    const day = String(date.getDate()).padStart(2, '0');
+    return `${date.getFullYear()}-${month}-${day}`;
+  }
+
   // Coloration des jours contenant des événements
   dateClass = (date: Date): string => {
-    if (!this.designer?.events) return '';
-
-    const isInPeriod = this.designer.events.some((event) => {
+    const isInPeriod = this.monthEvents.some((event) => {
       const eventStartDate = new Date(event.startDate);
-      const eventEndDate = new Date(event.endDate);
+      const eventEndDate = new Date(event.endDate ?? event.startDate);
       return this.isDateInRange(date, eventStartDate, eventEndDate);
     });
 
@@ -108,6 +179,7 @@ export class CalendarDialogComponent implements OnInit, OnDestroy {
   onDateSelected(date: Date | null): void {
     if (date) {
       this.selectedDate = date;
+      this.loadMonthEvents(date);
       this.updateSelectedDateEvents();
     }
   }
@@ -117,16 +189,11 @@ export class CalendarDialogComponent implements OnInit, OnDestroy {
    * @returns 
    */
   updateSelectedDateEvents(): void {
-    if (!this.designer?.events) {
-      this.eventsOnSelectedDate = [];
-      return;
-    }
-
-    this.eventsOnSelectedDate = this.designer.events.filter((event) =>
+    this.eventsOnSelectedDate = this.monthEvents.filter((event) =>
       this.isDateInRange(
         this.selectedDate,
         new Date(event.startDate),
-        new Date(event.endDate)
+        new Date(event.endDate ?? event.startDate)
       )
     );
   }
@@ -44,6 +44,7 @@ import { Subscription } from 'rxjs';
 })
 export class GestionCalendrierComponent implements OnInit, OnDestroy {
   designer!: Designer;
+  events: DesignerEvent[] = [];
   eventForm!: FormGroup;
 
   // Pour passer en mode modification d'event plutot qu'ajout
@@ -100,6 +101,7 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
         next: (designer) => {
           if (designer) {
             this.designer = designer;
+            this.loadEvents();
           }
         },
         error: (err) =>
@@ -113,6 +115,19 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
     }
   }
 
+  /**
+   * Chargement des évènements du designer connecté
+   */
+  loadEvents(): void {
+    const sub = this.designerService.getDesignerEvents(this.designer.id).subscribe({
+      next: (events) => (this.events = events),
+      error: (err) =>
+        console.error('Erreur lors du chargement des évènements', err),
+    });
+
+    this.subs.add(sub);
+  }
+
   /**
    * Soumission du formulaire, soit d'ajout soit de modification
    * @returns 
@@ -135,8 +150,8 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
 
     if (!this.modifMode) {
       if (this.eventForm.invalid) return;
+      // L'identifiant est attribué par l'API
       const eventData: DesignerEvent = {
-        id: this.generateEventId(),
         ...this.eventForm.value,
       };
 
@@ -152,13 +167,6 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
     }
   }
 
-  // Generation de l'id de l'event etant donné que ce n'est pas une table à part entiere en base de données
-  generateEventId(): string {
-    return (
-      'event_' + new Date().getTime() + '_' + Math.floor(Math.random() * 1000)
-    );
-  }
-
   /**
    * Ajout d'un event
    * @param event 
@@ -166,7 +174,7 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
   addEvent(event: DesignerEvent): void {
     this.designerService.addEvent(event).subscribe({
       next: () => {
-        this.loadDesignerData();
+        this.loadEvents();
         this.initForm();
       },
       error: () => console.log("erreur dans l'ajout de l'evenement"),
@@ -192,7 +200,7 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
       if (confirm('Êtes-vous sûr de vouloir modifier cet événement ?')) {
         this.designerService.modifyEvent(event).subscribe({
           next: () => {
-            this.loadDesignerData();
+            this.loadEvents();
             this.initForm();
             this.modifMode = false;
           },
@@ -221,7 +229,7 @@ export class GestionCalendrierComponent implements OnInit, OnDestroy {
       if (confirm('Êtes-vous sûr de vouloir supprimer cet événement ?')) {
         this.designerService.deleteEvent(event).subscribe({
           next: () => {
-            this.loadDesignerData();
+            this.loadEvents();
           },
           error: () => console.log("erreur dans la suppression de l'événement"),
         });
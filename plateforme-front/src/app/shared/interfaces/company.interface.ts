@@ -1,3 +1,5 @@
+import { ImageRenditions } from "./image-renditions.interface";
+
 export interface Company {
   id: string;
 
@@ -13,10 +15,13 @@ export interface Company {
   city?: string | null;
   revenue?: string | null;
   logoUrl?: string | null;
+  logoRenditions?: ImageRenditions | null;
   websiteUrl?: string | null;
 
   teamPhotoUrl?: string | null;
   worksUrl?: string[] | null;
+  teamPhotoRenditions?: ImageRenditions | null;
+  worksRenditions?: ImageRenditions[] | null;
   employeesId?: string[] | null;
 
   financialSupport?: boolean | false;
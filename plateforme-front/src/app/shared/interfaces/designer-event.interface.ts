@@ -5,4 +5,5 @@ export interface DesignerEvent {
     startDate: string;
     endDate: string;
     color: string;
+    designerId?: string; // Designer propriétaire, renseigné par l'API
 }
\ No newline at end of file
@@ -1,10 +1,11 @@
-import { DesignerEvent } from "./designer-event.interface";
+import { ImageRenditions } from "./image-renditions.interface";
 
 export interface Designer {
     id: string; // Identifiant unique
   
     email: string; // Adresse email
     profilePicture: string; // URL de la photo de profil
+    profilePictureRenditions?: ImageRenditions | null; // Déclinaisons redimensionnées de la photo de profil
     firstname: string; // Prénom
     lastname: string; // Nom
     biography: string; // Biographie
@@ -17,8 +18,8 @@ export interface Designer {
     countryOfResidence: string; // Pays de résidence
     professionalLevel: string; // Niveau professionnel (junior, senior, expert)
     majorWorks: string[]; // URL des photos des réalisations majeures (<= 5)
+    majorWorksRenditions?: ImageRenditions[]; // Déclinaisons des réalisations majeures
     portfolioUrl: string; // URL du portfolio
-    events: DesignerEvent[];
     createdBy: string; // Si crée par un administrateur
   }
   
\ No newline at end of file
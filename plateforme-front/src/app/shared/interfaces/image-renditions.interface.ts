@@ -0,0 +1,4 @@
+export interface ImageRenditions {
+    original: string; // URL de l'image envoyée
+    urls: { [name: string]: string }; // Déclinaisons redimensionnées (thumb, card, full), vide si l'image n'a pu être décodée
+}
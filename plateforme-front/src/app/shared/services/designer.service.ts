@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
 import { environment } from '../../../environments/environment';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { BehaviorSubject, catchError, map, Observable, switchMap, tap, throwError } from 'rxjs';
 import { Designer } from '../interfaces/designer.interface';
 import { DesignerEvent } from '../interfaces/designer-event.interface';
@@ -220,13 +220,30 @@ export class DesignerService {
 
   }
 
+  /**
+   * Récupération des évènements d'un designer, éventuellement sur une période (ex : le mois affiché)
+   * @param designerId
+   * @param from premier jour de la période (yyyy-MM-dd), sans borne si absent
+   * @param to dernier jour de la période (yyyy-MM-dd), sans borne si absent
+   * @returns un observable des évènements de la période, triés par date de début
+   */
+  getDesignerEvents(designerId: string, from?: string, to?: string): Observable<DesignerEvent[]> {
+    let params = new HttpParams();
+    if (from) params = params.set('from', from);
+    if (to) params = params.set('to', to);
+    return this.http.get<DesignerEvent[]>(`${this.apiUrl}/${designerId}/events`, {
+      params,
+      withCredentials: true,
+    });
+  }
+
   /**
    * Ajout d'un evenement
    * @param event 
-   * @returns l'observable du designer contenant le nouvel event
+   * @returns l'observable de l'event ajouté
    */
-  addEvent(event: DesignerEvent): Observable<Designer> {
-    return this.http.post<Designer>(`${this.apiUrl}/events/add`, event, {
+  addEvent(event: DesignerEvent): Observable<DesignerEvent> {
+    return this.http.post<DesignerEvent>(`${this.apiUrl}/events/add`, event, {
       withCredentials: true,
     });
   }
@@ -234,10 +251,10 @@ export class DesignerService {
   /**
    * Modification d'un event existant
    * @param event 
-   * @returns un observable du designer avec l'event modifié
+   * @returns un observable de l'event modifié
    */
-  modifyEvent(event: DesignerEvent): Observable<Designer> {
-    return this.http.post<Designer>(`${this.apiUrl}/events/modify`, event, {
+  modifyEvent(event: DesignerEvent): Observable<DesignerEvent> {
+    return this.http.post<DesignerEvent>(`${this.apiUrl}/events/modify`, event, {
       withCredentials: true,
     });
   }
@@ -245,10 +262,10 @@ export class DesignerService {
   /**
    * Suppression d'un event
    * @param event 
-   * @returns un observable du designer avec l'event supprimé
+   * @returns un observable de l'event supprimé
    */
-  deleteEvent(event: DesignerEvent): Observable<Designer> {
-    return this.http.post<Designer>(`${this.apiUrl}/events/delete`, event, {
+  deleteEvent(event: DesignerEvent): Observable<DesignerEvent> {
+    return this.http.post<DesignerEvent>(`${this.apiUrl}/events/delete`, event, {
       withCredentials: true,
     });
   }